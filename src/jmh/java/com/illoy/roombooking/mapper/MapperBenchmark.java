@@ -0,0 +1,73 @@
+package com.illoy.roombooking.mapper;
+
+import com.illoy.roombooking.database.entity.*;
+import com.illoy.roombooking.dto.response.BookingResponse;
+import com.illoy.roombooking.dto.response.RoomResponse;
+import com.illoy.roombooking.dto.response.UserResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// сгенерированные MapStruct мапперы на одной сущности: то, что делается на каждый элемент списка
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+    private final RoomMapper roomMapper = new RoomMapperImpl();
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    private Booking booking;
+    private Room room;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+        user = User.builder()
+                .id(1L)
+                .username("bench")
+                .email("bench@test.com")
+                .password("password")
+                .role(UserRole.ROLE_USER)
+                .build();
+        room = Room.builder()
+                .id(1L)
+                .name("Bench Room")
+                .description("Room used by the mapper benchmark")
+                .capacity(8)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        booking = Booking.builder()
+                .id(1L)
+                .user(user)
+                .room(room)
+                .startTime(now)
+                .endTime(now.plusHours(1))
+                .status(BookingStatus.CONFIRMED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @Benchmark
+    public BookingResponse bookingToResponse() {
+        return bookingMapper.toResponse(booking);
+    }
+
+    @Benchmark
+    public RoomResponse roomToResponse() {
+        return roomMapper.toResponse(room);
+    }
+
+    @Benchmark
+    public UserResponse userToResponse() {
+        return userMapper.toResponse(user);
+    }
+}
@@ -0,0 +1,99 @@
+package com.illoy.roombooking.security.jwt;
+
+import com.illoy.roombooking.security.UserDetailsServiceImpl;
+import com.illoy.roombooking.security.UserPrincipal;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import jakarta.servlet.FilterChain;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/*
+   Фильтр целиком на каждый запрос: разбор заголовка, проверка и повторный разбор токена,
+   загрузка пользователя и установка контекста. Пользователь отдаётся из памяти, так что
+   это стоимость фильтра без запроса в БД
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+
+    // management.tracing.sampling.probability из application.yml.example
+    private static final double SAMPLING_PROBABILITY = 0.05;
+
+    private AuthTokenFilter filter;
+    private String authorization;
+
+    // none - без наблюдения; sampled - метрики и трассировка OpenTelemetry с долей трасс как в проде
+    @Param({"none", "sampled"})
+    private String observation;
+
+    @Setup
+    public void setUp() {
+        JwtUtils jwtUtils = JwtUtilsBenchmark.jwtUtils();
+        UserPrincipal principal = JwtUtilsBenchmark.principal();
+
+        filter = new AuthTokenFilter(
+                jwtUtils,
+                new UserDetailsServiceImpl(null) {
+                    @Override
+                    public UserDetails loadUserByUsername(String username) {
+                        return principal;
+                    }
+                },
+                observationRegistry());
+        authorization = "Bearer " + jwtUtils.generateJwtToken(JwtUtilsBenchmark.authentication());
+    }
+
+    @Benchmark
+    public void authenticatedRequest(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me/bookings");
+        request.addHeader("Authorization", authorization);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain(blackhole));
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void anonymousRequest(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/rooms");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain(blackhole));
+    }
+
+    private static FilterChain chain(Blackhole blackhole) {
+        return (request, response) ->
+                blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private ObservationRegistry observationRegistry() {
+        if (observation.equals("none")) {
+            return ObservationRegistry.NOOP;
+        }
+
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(SAMPLING_PROBABILITY)))
+                .build();
+        OtelTracer tracer = new OtelTracer(tracerProvider.get("benchmark"), new OtelCurrentTraceContext(), event -> {});
+
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig()
+                .observationHandler(new DefaultMeterObservationHandler(new SimpleMeterRegistry()))
+                .observationHandler(new DefaultTracingObservationHandler(tracer));
+        return registry;
+    }
+}
@@ -0,0 +1,65 @@
+package com.illoy.roombooking.security.jwt;
+
+import com.illoy.roombooking.security.UserPrincipal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// выпуск и проверка токена: HMAC-SHA512 плюс разбор JSON заголовка и claims
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = jwtUtils();
+        authentication = authentication();
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String getUserName() {
+        return jwtUtils.getUserNameFromJwtToken(token);
+    }
+
+    static JwtUtils jwtUtils() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        return jwtUtils;
+    }
+
+    static UserPrincipal principal() {
+        return new UserPrincipal(
+                1L, "bench", "bench@test.com", "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    static Authentication authentication() {
+        UserPrincipal principal = principal();
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
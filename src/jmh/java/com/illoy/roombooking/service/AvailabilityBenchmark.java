@@ -0,0 +1,84 @@
+package com.illoy.roombooking.service;
+
+import com.illoy.roombooking.database.entity.Booking;
+import com.illoy.roombooking.database.entity.BookingStatus;
+import com.illoy.roombooking.dto.response.RoomResponse;
+import com.illoy.roombooking.dto.response.TimeSlot;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.*;
+
+/*
+   Вычисления доступности в RoomService после запросов в БД: расписание дня комнаты
+   (mapToTimeSlots) и отсев занятых комнат из кандидатов по вместимости (withoutBusy)
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    // бронирований за день в одной комнате
+    @Param({"8", "48"})
+    private int bookingsPerDay;
+
+    // кандидатов по вместимости, занята примерно треть
+    @Param({"100", "1000"})
+    private int rooms;
+
+    private List<Booking> dayBookings;
+    private List<RoomResponse> candidates;
+    private Set<Long> busy;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime day = LocalDateTime.of(2026, 3, 2, 0, 0);
+        int slotMinutes = 24 * 60 / bookingsPerDay;
+
+        // в том порядке, в каком их может вернуть БД без ORDER BY
+        dayBookings = new ArrayList<>(bookingsPerDay);
+        for (int i = 0; i < bookingsPerDay; i++) {
+            LocalDateTime start = day.plusMinutes((long) i * slotMinutes);
+            dayBookings.add(Booking.builder()
+                    .id((long) i)
+                    .startTime(start)
+                    .endTime(start.plusMinutes(slotMinutes))
+                    .status(i % 4 == 0 ? BookingStatus.PENDING : BookingStatus.CONFIRMED)
+                    .build());
+        }
+        Collections.shuffle(dayBookings, random);
+
+        candidates = new ArrayList<>(rooms);
+        for (long id = 1; id <= rooms; id++) {
+            candidates.add(RoomResponse.builder()
+                    .id(id)
+                    .name("Room " + id)
+                    .capacity(1 + random.nextInt(100))
+                    .active(true)
+                    .build());
+        }
+        busy = candidates.stream()
+                .map(RoomResponse::getId)
+                .filter(id -> random.nextInt(3) == 0)
+                .collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public List<TimeSlot> mapToTimeSlots() {
+        return RoomService.mapToTimeSlots(dayBookings);
+    }
+
+    @Benchmark
+    public List<RoomResponse> withoutBusy() {
+        return RoomService.withoutBusy(candidates, busy);
+    }
+}
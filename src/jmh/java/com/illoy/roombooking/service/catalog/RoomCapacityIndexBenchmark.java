@@ -0,0 +1,48 @@
+package com.illoy.roombooking.service.catalog;
+
+import com.illoy.roombooking.dto.response.RoomResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// подбор комнат по вместимости из каталога: узкий диапазон и почти весь каталог
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomCapacityIndexBenchmark {
+
+    @Param({"100", "1000"})
+    private int rooms;
+
+    private RoomCapacityIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<RoomResponse> catalog = new ArrayList<>(rooms);
+        for (long id = 1; id <= rooms; id++) {
+            catalog.add(RoomResponse.builder()
+                    .id(id)
+                    .name("Room " + id)
+                    .capacity(1 + random.nextInt(RoomCapacityIndex.MAX_CAPACITY))
+                    .active(true)
+                    .build());
+        }
+        index = new RoomCapacityIndex(catalog);
+    }
+
+    @Benchmark
+    public List<RoomResponse> narrowRange() {
+        return index.find(8, 12);
+    }
+
+    @Benchmark
+    public List<RoomResponse> wideRange() {
+        return index.find(2, Integer.MAX_VALUE);
+    }
+}
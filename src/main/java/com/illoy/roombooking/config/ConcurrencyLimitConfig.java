@@ -0,0 +1,127 @@
+package com.illoy.roombooking.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.filter.ConcurrencyLimitFilter;
+import com.netflix.concurrency.limits.Limit;
+import com.netflix.concurrency.limits.limit.AIMDLimit;
+import com.netflix.concurrency.limits.limit.Gradient2Limit;
+import com.netflix.concurrency.limits.limiter.AbstractLimiter;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+   Адаптивные пределы одновременных запросов: отдельно для входа/регистрации (упираются в CPU
+   из-за BCrypt) и для создания бронирований (упираются в БД и блокировку комнаты).
+   gradient - Gradient2 (по отношению долгой и текущей задержки), aimd - рост на единицу
+   и умножение на backoff при задержке дольше aimd-timeout-ms
+*/
+@Configuration
+@ConditionalOnProperty(
+        name = "spring.application.concurrency-limit.enabled",
+        havingValue = "true",
+        matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    // после ограничения частоты: отклонённые им запросы не занимают место
+    private static final int ORDER = RateLimitConfig.ORDER + 10;
+
+    @Value("${spring.application.concurrency-limit.algorithm:gradient}")
+    private String algorithm;
+
+    @Value("${spring.application.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    // у Gradient2 по умолчанию нижняя граница 20 - для CPU-bound входа на малом числе ядер много
+    @Value("${spring.application.concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${spring.application.concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${spring.application.concurrency-limit.aimd-timeout-ms:1000}")
+    private long aimdTimeoutMs;
+
+    @Bean
+    public SimpleLimiter<Void> authConcurrencyLimiter(MeterRegistry meterRegistry) {
+        return limiter("auth", meterRegistry);
+    }
+
+    @Bean
+    public SimpleLimiter<Void> bookingConcurrencyLimiter(MeterRegistry meterRegistry) {
+        return limiter("booking", meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> authConcurrencyLimitFilter(
+            SimpleLimiter<Void> authConcurrencyLimiter, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return registration("auth", authConcurrencyLimiter, null, "/api/auth/*", objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> bookingConcurrencyLimitFilter(
+            SimpleLimiter<Void> bookingConcurrencyLimiter, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return registration("booking", bookingConcurrencyLimiter, "POST", "/api/bookings", objectMapper, meterRegistry);
+    }
+
+    private SimpleLimiter<Void> limiter(String group, MeterRegistry meterRegistry) {
+        Limit limit =
+                switch (algorithm) {
+                    case "aimd" -> AIMDLimit.newBuilder()
+                            .initialLimit(initialLimit)
+                            .minLimit(minLimit)
+                            .maxLimit(maxLimit)
+                            .timeout(aimdTimeoutMs, TimeUnit.MILLISECONDS)
+                            .build();
+                    case "gradient" -> Gradient2Limit.newBuilder()
+                            .initialLimit(initialLimit)
+                            .minLimit(minLimit)
+                            .maxConcurrency(maxLimit)
+                            .build();
+                    default -> throw new IllegalStateException("Unknown concurrency limit algorithm: " + algorithm);
+                };
+
+        SimpleLimiter<Void> limiter =
+                SimpleLimiter.newBuilder().named(group).limit(limit).build();
+
+        Gauge.builder("http.server.concurrency.limit", limiter, AbstractLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.inflight", limiter, AbstractLimiter::getInflight)
+                .description("Requests currently holding a concurrency permit")
+                .tag("group", group)
+                .register(meterRegistry);
+
+        return limiter;
+    }
+
+    private static FilterRegistrationBean<ConcurrencyLimitFilter> registration(
+            String group,
+            SimpleLimiter<Void> limiter,
+            String method,
+            String urlPattern,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+
+        Counter rejected = Counter.builder("http.server.requests.rejected")
+                .description("Requests rejected before reaching the controller")
+                .tag("group", group)
+                .tag("reason", "concurrency_limit")
+                .register(meterRegistry);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiter, method, objectMapper, rejected));
+        registration.setName(group + "ConcurrencyLimitFilter");
+        registration.setOrder(ORDER);
+        registration.addUrlPatterns(urlPattern);
+        return registration;
+    }
+}
@@ -0,0 +1,51 @@
+package com.illoy.roombooking.config;
+
+import java.util.List;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+   Оборачивает основной DataSource в datasource-proxy со всеми слушателями-бинами: статистика
+   запросов (QueryStatisticsListener), JDBC-спаны трассировки (TracingConfig) и слой db
+   заголовка Server-Timing (ServerTimingConfig). Оборачивается только
+   бин dataSource: при репликах он же маршрутизирующий, и каждое выполнение видно один раз.
+   Без слушателей DataSource остаётся как есть
+*/
+@Configuration
+public class DataSourceProxyConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxy(
+            ObjectProvider<QueryExecutionListener> queryListeners,
+            ObjectProvider<MethodExecutionListener> methodListeners) {
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !DATA_SOURCE_BEAN.equals(beanName)) {
+                    return bean;
+                }
+
+                List<QueryExecutionListener> listeners =
+                        queryListeners.orderedStream().toList();
+                if (listeners.isEmpty()) {
+                    return bean;
+                }
+
+                ProxyDataSourceBuilder builder =
+                        ProxyDataSourceBuilder.create(dataSource).name(DATA_SOURCE_BEAN);
+                listeners.forEach(builder::listener);
+                methodListeners.orderedStream().forEach(builder::methodListener);
+                return builder.build();
+            }
+        };
+    }
+}
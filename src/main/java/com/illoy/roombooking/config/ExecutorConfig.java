@@ -0,0 +1,58 @@
+package com.illoy.roombooking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ExecutorConfig {
+
+    // задачи дашборда блокируются на JDBC, поэтому каждая получает свой виртуальный поток
+    @Bean(destroyMethod = "close")
+    public ExecutorService dashboardExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("dashboard-", 0).factory());
+    }
+
+    // отправка кадров SSE: поток нужен только пока есть что отправить, медленный клиент блокирует лишь свой
+    @Bean(destroyMethod = "close")
+    public ExecutorService availabilityStreamExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("availability-stream-", 0).factory());
+    }
+
+    /*
+       BCrypt упирается в CPU: больше потоков, чем ядер, не ускоряет, а отнимает ядра у остальных запросов.
+       Очередь ограничена, сверх неё задача отклоняется сразу. Метрики executor.* с name=password.hashing:
+       queued, active, completed и время ожидания в очереди (executor.idle)
+    */
+    @Bean(destroyMethod = "close")
+    public ExecutorService passwordHashingExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${spring.application.password-hashing.threads:0}") int threads,
+            @Value("${spring.application.password-hashing.queue-capacity:64}") int queueCapacity) {
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+    }
+}
@@ -0,0 +1,54 @@
+package com.illoy.roombooking.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/*
+   Spring Boot сам регистрирует бины Module в общем ObjectMapper.
+   Blackbird заменяет рефлексивные вызовы геттеров/сеттеров DTO на сгенерированные
+   через LambdaMetafactory, что заметно на больших списках бронирований
+*/
+@Configuration
+public class JacksonConfig {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    // бинарные форматы отдаются только тем, кто явно просит их в Accept
+    public static final List<MediaType> BINARY_MEDIA_TYPES = List.of(MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    @Bean
+    @ConditionalOnProperty(
+            name = "spring.application.json.blackbird.enabled",
+            havingValue = "true",
+            matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /*
+       Конвертеры CBOR/Smile Spring MVC добавил бы и сам, но со своим ObjectMapper.
+       Builder от Spring Boot несёт те же настройки и модули, что и JSON:
+       даты, Blackbird и т.д. (builder - prototype, factory() на JSON не влияет)
+    */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(
+                builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(
+                builder.factory(new SmileFactory()).build());
+    }
+}
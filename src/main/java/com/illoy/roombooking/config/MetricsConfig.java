@@ -0,0 +1,29 @@
+package com.illoy.roombooking.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+   Метрики контроллеров (http.server.requests), репозиториев (spring.data.repository.invocations),
+   пула Hikari и JVM настраивает actuator. Здесь - таймеры @Timed на сервисах и защита от роста
+   числа рядов: теги только с ограниченным набором значений
+*/
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // uri - шаблон маршрута, но сканеры по несуществующим путям не должны раздувать число рядов
+    @Bean
+    public MeterFilter httpUriCardinalityLimit(
+            @Value("${spring.application.metrics.max-uri-tags:100}") int maxUriTags) {
+        return MeterFilter.maximumAllowableTags("http.server.requests", "uri", maxUriTags, MeterFilter.deny());
+    }
+}
@@ -0,0 +1,33 @@
+package com.illoy.roombooking.config;
+
+import com.illoy.roombooking.filter.StatementCountFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+   Наблюдение за запросами к БД вместо show_sql: слушатель datasource-proxy (QueryStatisticsListener,
+   подключается в DataSourceProxyConfig) собирает статистику по формам запросов и журнал медленных,
+   фильтр - число запросов на HTTP-запрос
+*/
+@Configuration
+@ConditionalOnProperty(name = "spring.application.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatisticsConfig {
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(
+            MeterRegistry meterRegistry,
+            @Value("${spring.application.query-stats.request-warn-statements:30}") int warnThreshold) {
+
+        FilterRegistrationBean<StatementCountFilter> registration =
+                new FilterRegistrationBean<>(new StatementCountFilter(meterRegistry, warnThreshold));
+        // раньше Spring Security: загрузка пользователя по токену тоже считается
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 20);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,83 @@
+package com.illoy.roombooking.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.filter.RateLimitFilter;
+import com.illoy.roombooking.service.ratelimit.RateLimitRule;
+import com.illoy.roombooking.service.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+   Корзины токенов на дорогих эндпоинтах: вход и регистрация (BCrypt на каждый вызов) - по IP,
+   создание бронирования - по пользователю. Хранилище - в памяти узла или общее в PostgreSQL
+   (spring.application.rate-limit.store)
+*/
+@Configuration
+@ConditionalOnProperty(name = "spring.application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    // после Spring Security: пользователь из JWT уже в SecurityContext
+    static final int ORDER = SecurityProperties.DEFAULT_FILTER_ORDER + 10;
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> authRateLimitFilter(
+            RateLimiter rateLimiter,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${spring.application.rate-limit.auth.capacity:10}") int capacity,
+            @Value("${spring.application.rate-limit.auth.refill-per-second:0.5}") double refillPerSecond) {
+
+        return registration(
+                new RateLimitRule("auth", capacity, refillPerSecond),
+                null,
+                "/api/auth/*",
+                rateLimiter,
+                objectMapper,
+                meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> bookingRateLimitFilter(
+            RateLimiter rateLimiter,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${spring.application.rate-limit.booking.capacity:20}") int capacity,
+            @Value("${spring.application.rate-limit.booking.refill-per-second:1}") double refillPerSecond) {
+
+        return registration(
+                new RateLimitRule("booking", capacity, refillPerSecond),
+                "POST",
+                "/api/bookings",
+                rateLimiter,
+                objectMapper,
+                meterRegistry);
+    }
+
+    private static FilterRegistrationBean<RateLimitFilter> registration(
+            RateLimitRule rule,
+            String method,
+            String urlPattern,
+            RateLimiter rateLimiter,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+
+        Counter rejected = Counter.builder("http.server.requests.rejected")
+                .description("Requests rejected before reaching the controller")
+                .tag("group", rule.name())
+                .tag("reason", "rate_limit")
+                .register(meterRegistry);
+
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, rule, method, objectMapper, rejected));
+        registration.setName(rule.name() + "RateLimitFilter");
+        registration.setOrder(ORDER);
+        registration.addUrlPatterns(urlPattern);
+        return registration;
+    }
+}
@@ -0,0 +1,27 @@
+package com.illoy.roombooking.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "spring.application.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // реплика с большим отставанием не получает запросы, пока не догонит primary
+    private long maxLagMs = 1000;
+
+    private long lagCheckIntervalMs = 5000;
+
+    private int replicaPoolSize = 10;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -1,8 +1,14 @@
 package com.illoy.roombooking.config;
 
+import com.illoy.roombooking.security.BoundedPasswordEncoder;
 import com.illoy.roombooking.security.jwt.AuthEntryPointJwt;
 import com.illoy.roombooking.security.jwt.AuthTokenFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import java.util.concurrent.ExecutorService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -30,9 +36,15 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    // им же проверяет пароли AuthenticationManager, так что вход тоже идёт через пул хеширования
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ExecutorService passwordHashingExecutor, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(
+                PasswordEncoderFactories.createDelegatingPasswordEncoder(),
+                passwordHashingExecutor,
+                Counter.builder("password.hashing.rejected")
+                        .description("Password hashing tasks rejected because the queue was full")
+                        .register(meterRegistry));
     }
 
     @Bean
@@ -41,10 +53,21 @@ public class SecurityConfig {
         http.csrf(csrf -> csrf.disable())
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authorizeHttpRequests(auth -> auth.requestMatchers("/api/auth/**")
+                .authorizeHttpRequests(auth -> auth
+                        // завершение SSE/async-запроса: доступ уже проверен на исходном запросе,
+                        // а JWT-фильтр на async-диспетчеризации не выполняется
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                        .permitAll()
+                        .requestMatchers("/api/auth/**")
                         .permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**")
                         .permitAll()
+                        // проверка живости и сбор метрик Prometheus - без токена; снаружи закрываются
+                        // на балансировщике или выносятся на management.server.port
+                        .requestMatchers(EndpointRequest.to("health", "prometheus"))
+                        .permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint())
+                        .hasRole("ADMIN")
                         .requestMatchers("/api/admin/**")
                         .hasRole("ADMIN")
                         .anyRequest()
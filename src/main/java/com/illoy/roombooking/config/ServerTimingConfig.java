@@ -0,0 +1,44 @@
+package com.illoy.roombooking.config;
+
+import com.illoy.roombooking.database.query.ServerTimingQueryListener;
+import com.illoy.roombooking.filter.ServerTimingFilter;
+import com.illoy.roombooking.mapper.MappingTimingAspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+   Заголовок Server-Timing (auth, db с числом запросов, mapping, serialization, total) - по включению:
+   тело ответа буферизуется, а время слоёв видно любому клиенту. Источники: AuthTokenFilter,
+   слушатель datasource-proxy (подключается в DataSourceProxyConfig), аспект мапперов
+   и ServerTimingBodyAdvice перед записью тела
+*/
+@Configuration
+@ConditionalOnProperty(name = "spring.application.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${spring.application.server-timing.allow-origin:}") String allowOrigin) {
+
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(allowOrigin));
+        // снаружи остальных фильтров: total включает ожидание разрешения и Spring Security
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 30);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public ServerTimingQueryListener serverTimingQueryListener() {
+        return new ServerTimingQueryListener();
+    }
+
+    @Bean
+    public MappingTimingAspect mappingTimingAspect() {
+        return new MappingTimingAspect();
+    }
+}
@@ -0,0 +1,73 @@
+package com.illoy.roombooking.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.service.tracing.OtlpJsonFileSpanExporter;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import io.micrometer.tracing.Tracer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import net.ttddyy.observation.tracing.ConnectionTracingObservationHandler;
+import net.ttddyy.observation.tracing.DataSourceObservationListener;
+import net.ttddyy.observation.tracing.JdbcObservationDocumentation;
+import net.ttddyy.observation.tracing.QueryTracingObservationHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+/*
+   Трассировка через Micrometer Observation с мостом в OpenTelemetry SDK. HTTP-спан создаёт Spring MVC,
+   спаны фильтра JWT, загрузки пользователя и сервисов - Observation/@Observed, JDBC-спаны (получение
+   соединения и каждый запрос) - слушатель datasource-proxy. Доля трасс задаётся
+   management.tracing.sampling.probability: у невыбранных спаны не создаются и не экспортируются.
+   Экспорт без сети: RecentSpanExporter в памяти и, если задан путь, файл OTLP JSON
+*/
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    // реестр берётся лениво: слушатель нужен уже при создании DataSource
+    @Bean
+    @ConditionalOnProperty(
+            name = "spring.application.tracing.jdbc.enabled",
+            havingValue = "true",
+            matchIfMissing = true)
+    public DataSourceObservationListener dataSourceObservationListener(
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        DataSourceObservationListener listener = new DataSourceObservationListener(observationRegistry::getObject);
+        // без спанов на каждый next() ResultSet и без значений параметров в тегах
+        listener.setSupportedTypes(
+                EnumSet.of(JdbcObservationDocumentation.CONNECTION, JdbcObservationDocumentation.QUERY));
+        listener.setIncludeParameterValues(false);
+        return listener;
+    }
+
+    // раньше общего обработчика трассировки, иначе JDBC-спаны получат имена и теги по умолчанию
+    @Bean
+    @Order(0)
+    public QueryTracingObservationHandler queryTracingObservationHandler(Tracer tracer) {
+        return new QueryTracingObservationHandler(tracer);
+    }
+
+    @Bean
+    @Order(0)
+    public ConnectionTracingObservationHandler connectionTracingObservationHandler(Tracer tracer) {
+        return new ConnectionTracingObservationHandler(tracer);
+    }
+
+    // закрывает SdkTracerProvider при остановке, после выгрузки последней пачки
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(name = "spring.application.tracing.file.path")
+    public OtlpJsonFileSpanExporter otlpJsonFileSpanExporter(
+            @Value("${spring.application.tracing.file.path}") Path path, ObjectMapper objectMapper) throws IOException {
+        return new OtlpJsonFileSpanExporter(path, objectMapper);
+    }
+}
@@ -0,0 +1,61 @@
+package com.illoy.roombooking.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.filter.ConnectionPoolGuardFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+   Включается вместе со spring.threads.virtual.enabled=true (профиль "virtual").
+   Tomcat, @Async и @Scheduled при этом переводит на виртуальные потоки сам Spring Boot,
+   здесь добавляется только ограничитель нагрузки на пул соединений
+*/
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public FilterRegistrationBean<ConnectionPoolGuardFilter> connectionPoolGuardFilter(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${spring.application.virtual-threads.permits-per-connection:2}") int permitsPerConnection,
+            @Value("${spring.application.virtual-threads.acquire-timeout-ms:1000}") long acquireTimeoutMs) {
+
+        int poolSize = maximumPoolSize(dataSource);
+        int permits = poolSize * permitsPerConnection;
+
+        log.info("Virtual threads enabled: {} concurrent requests allowed for {} pool connections", permits, poolSize);
+
+        FilterRegistrationBean<ConnectionPoolGuardFilter> registration = new FilterRegistrationBean<>(
+                new ConnectionPoolGuardFilter(new Semaphore(permits, true), acquireTimeoutMs, objectMapper));
+        // раньше Spring Security: AuthTokenFilter уже ходит в БД за пользователем
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    private int maximumPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Cannot read connection pool size: {}", e.getMessage());
+        }
+
+        return DEFAULT_POOL_SIZE;
+    }
+}
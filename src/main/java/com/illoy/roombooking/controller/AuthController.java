@@ -57,12 +57,9 @@ public class AuthController {
     public ResponseEntity<RegisterResponse> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
         UserResponse userResponse = userService.create(registerRequest);
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(registerRequest.getUsername(), registerRequest.getPassword()));
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-
-        String jwt = jwtUtils.generateJwtToken(authentication);
+        // пользователь только что создан с этим паролем: повторный вход через AuthenticationManager
+        // стоил бы ещё одной проверки BCrypt и поиска пользователя
+        String jwt = jwtUtils.generateJwtToken(userResponse.getUsername());
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(RegisterResponse.builder().token(jwt).user(userResponse).build());
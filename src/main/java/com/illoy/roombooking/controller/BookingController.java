@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -31,7 +32,15 @@ public class BookingController {
 
     // получить конкретное бронирование
     @GetMapping("/{bookingId}")
-    public ResponseEntity<BookingResponse> findById(@PathVariable("bookingId") Long id) {
+    public ResponseEntity<BookingResponse> findById(@PathVariable("bookingId") Long id, WebRequest webRequest) {
+
+        // версия проверяется до загрузки бронирования; чужое бронирование 304 не получит
+        if (bookingService
+                .findVersionById(id)
+                .filter(version -> ConditionalRequests.notModified(webRequest, version))
+                .isPresent()) {
+            return null;
+        }
 
         BookingResponse bookingResponse = bookingService.findById(id);
 
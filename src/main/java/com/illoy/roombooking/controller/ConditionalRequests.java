@@ -0,0 +1,66 @@
+package com.illoy.roombooking.controller;
+
+import com.illoy.roombooking.config.JacksonConfig;
+import com.illoy.roombooking.dto.response.ResourceVersion;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/*
+   Условные GET для ответов, формат которых выбирается по Accept (JSON, CBOR, Smile).
+   Это разные представления одного ресурса: в ETag добавляется выбранный формат, а в ответ -
+   Vary: Accept, чтобы ни общий кеш, ни If-None-Match не отдали тело или 304 не в том формате
+*/
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {}
+
+    // при совпадении версии Spring сам выставит 304 и заголовки, тело не нужно
+    public static boolean notModified(WebRequest webRequest, ResourceVersion version) {
+        if (webRequest instanceof ServletWebRequest servletWebRequest && servletWebRequest.getResponse() != null) {
+            servletWebRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+
+        String etag = preferredBinaryType(webRequest.getHeader(HttpHeaders.ACCEPT))
+                .map(type -> version.getEtag() + "-" + type.getSubtype())
+                .orElse(version.getEtag());
+
+        return webRequest.checkNotModified(etag, version.getLastModified());
+    }
+
+    // бинарный формат, если клиент явно предпочитает его JSON'у (с учётом q)
+    public static Optional<MediaType> preferredBinaryType(String accept) {
+        if (accept == null) {
+            return Optional.empty();
+        }
+
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+        for (MediaType type : accepted) {
+            Optional<MediaType> binary = JacksonConfig.BINARY_MEDIA_TYPES.stream()
+                    .filter(type::equalsTypeAndSubtype)
+                    .findFirst();
+            if (binary.isPresent()) {
+                return binary;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return Optional.empty();
+            }
+        }
+
+        return Optional.empty();
+    }
+}
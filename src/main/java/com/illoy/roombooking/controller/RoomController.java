@@ -1,8 +1,13 @@
 package com.illoy.roombooking.controller;
 
+import com.illoy.roombooking.dto.response.ResourceVersion;
 import com.illoy.roombooking.dto.response.RoomAvailabilityResponse;
 import com.illoy.roombooking.dto.response.RoomResponse;
 import com.illoy.roombooking.service.RoomService;
+import com.illoy.roombooking.service.availability.AvailabilityStreamRegistry;
+import com.illoy.roombooking.service.calendar.CalendarFeedService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -11,19 +16,41 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/rooms")
 @RequiredArgsConstructor
 public class RoomController {
     private final RoomService roomService;
+    private final AvailabilityStreamRegistry availabilityStreamRegistry;
+    private final CalendarFeedService calendarFeedService;
 
-    // получить все активные комнаты
+    /*
+       Списки и отдельные активные комнаты отдаются с ETag/Last-Modified: версия берётся
+       из каталога в памяти, поэтому на If-None-Match клиент получает 304 без запросов в БД.
+       ETag зависит и от формата ответа, см. ConditionalRequests
+    */
+
+    // получить все активные комнаты (JSON сериализован заранее, см. RoomCatalog)
     @GetMapping
-    public ResponseEntity<List<RoomResponse>> findAllActiveList() {
-        return ResponseEntity.ok(roomService.findAllActive());
+    public ResponseEntity<?> findAllActiveList(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept, WebRequest webRequest) {
+        if (ConditionalRequests.notModified(webRequest, roomService.activeRoomsVersion())) {
+            return null;
+        }
+
+        if (ConditionalRequests.preferredBinaryType(accept).isPresent()) {
+            // CBOR/Smile - через обычные конвертеры
+            return ResponseEntity.ok(roomService.findAllActive());
+        }
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(roomService.findAllActiveJson());
     }
 
     // получить все активные комнаты (с пагинацией)
@@ -31,7 +58,12 @@ public class RoomController {
     public ResponseEntity<Page<RoomResponse>> findAllActivePage(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "name") String sortBy) {
+            @RequestParam(defaultValue = "name") String sortBy,
+            WebRequest webRequest) {
+
+        if (ConditionalRequests.notModified(webRequest, roomService.activeRoomsVersion())) {
+            return null;
+        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
         Page<RoomResponse> activeRooms = roomService.findAllActive(pageable);
@@ -39,22 +71,46 @@ public class RoomController {
         return ResponseEntity.ok(activeRooms);
     }
 
-    // получить все комнаты с минимальной вместимостью
+    // получить комнаты по диапазону вместимости, при указании интервала - только свободные в нём
     @GetMapping("/available")
-    public ResponseEntity<List<RoomResponse>> findActiveByCapacity(@RequestParam(defaultValue = "2") int minCapacity) {
-        return ResponseEntity.ok(roomService.findActiveByCapacity(minCapacity));
+    public ResponseEntity<List<RoomResponse>> findActiveByCapacity(
+            @RequestParam(defaultValue = "2") int minCapacity,
+            @RequestParam(required = false) Integer maxCapacity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            WebRequest webRequest) {
+
+        // с интервалом ответ зависит ещё и от бронирований, версии каталога недостаточно
+        boolean catalogOnly = startTime == null && endTime == null;
+        if (catalogOnly && ConditionalRequests.notModified(webRequest, roomService.activeRoomsVersion())) {
+            return null;
+        }
+
+        return ResponseEntity.ok(roomService.findAvailable(minCapacity, maxCapacity, startTime, endTime));
     }
 
     // получить все комнаты по подстроке названия
     @GetMapping("/search")
     public ResponseEntity<List<RoomResponse>> findActiveBySearchTerm(
-            @RequestParam(defaultValue = "") String searchTerm) {
+            @RequestParam(defaultValue = "") String searchTerm, WebRequest webRequest) {
+
+        if (ConditionalRequests.notModified(webRequest, roomService.activeRoomsVersion())) {
+            return null;
+        }
+
         return ResponseEntity.ok(roomService.searchActiveByName(searchTerm));
     }
 
     // получить комнату по id
     @GetMapping("/{roomId}")
-    public ResponseEntity<RoomResponse> findActiveById(@PathVariable("roomId") Long id) {
+    public ResponseEntity<RoomResponse> findActiveById(@PathVariable("roomId") Long id, WebRequest webRequest) {
+        if (roomService
+                .activeRoomVersion(id)
+                .filter(version -> ConditionalRequests.notModified(webRequest, version))
+                .isPresent()) {
+            return null;
+        }
+
         return ResponseEntity.ok(roomService.findActiveRoomById(id));
     }
 
@@ -67,4 +123,38 @@ public class RoomController {
 
         return ResponseEntity.ok(roomService.checkAvailability(id, startTime, endTime));
     }
+
+    // занятость комнаты лентой iCalendar (без данных о том, кто бронировал)
+    @GetMapping("/{roomId}/calendar.ics")
+    public void getRoomCalendar(@PathVariable("roomId") Long id, WebRequest webRequest, HttpServletResponse response)
+            throws IOException {
+        ResourceVersion version = calendarFeedService.roomFeedVersion(id);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return;
+        }
+
+        response.setContentType(CalendarFeedService.TEXT_CALENDAR);
+        calendarFeedService.writeRoomFeed(id, version, response.getOutputStream());
+    }
+
+    /*
+       Живые изменения занятости: события delta с AvailabilityDelta после каждого коммита
+       бронирования, resync - если кадры были потеряны и занятость надо перечитать.
+       Подписываться стоит до первого запроса /availability, чтобы не пропустить изменения
+    */
+    @GetMapping(value = "/{roomId}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAvailability(@PathVariable("roomId") Long id) {
+        if (roomService.activeRoomVersion(id).isEmpty()) {
+            // ErrorResponse в text/event-stream не записать, а EventSource тело ошибки всё равно не читает
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(availabilityStreamRegistry.subscribe(id));
+    }
+
+    // то же для всех комнат сразу
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAllAvailability() {
+        return availabilityStreamRegistry.subscribe(null);
+    }
 }
@@ -3,12 +3,16 @@ package com.illoy.roombooking.controller;
 import com.illoy.roombooking.database.entity.BookingStatus;
 import com.illoy.roombooking.dto.request.UserEditRequest;
 import com.illoy.roombooking.dto.response.BookingResponse;
+import com.illoy.roombooking.dto.response.ResourceVersion;
 import com.illoy.roombooking.dto.response.UserResponse;
 import com.illoy.roombooking.exception.UserUpdateException;
 import com.illoy.roombooking.security.AuthenticationService;
 import com.illoy.roombooking.service.BookingService;
 import com.illoy.roombooking.service.UserService;
+import com.illoy.roombooking.service.calendar.CalendarFeedService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +24,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/users")
@@ -29,6 +34,7 @@ public class UserController {
     private final UserService userService;
     private final BookingService bookingService;
     private final AuthenticationService authenticationService;
+    private final CalendarFeedService calendarFeedService;
 
     // получение текущего пользователя
     @GetMapping("/me")
@@ -66,4 +72,16 @@ public class UserController {
 
         return ResponseEntity.ok(bookings.getContent());
     }
+
+    // бронирования пользователя лентой iCalendar для подписки из календаря
+    @GetMapping("/me/bookings.ics")
+    public void getUserBookingsCalendar(WebRequest webRequest, HttpServletResponse response) throws IOException {
+        ResourceVersion version = calendarFeedService.userFeedVersion();
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return;
+        }
+
+        response.setContentType(CalendarFeedService.TEXT_CALENDAR);
+        calendarFeedService.writeUserFeed(version, response.getOutputStream());
+    }
 }
@@ -0,0 +1,33 @@
+package com.illoy.roombooking.controller.admin;
+
+import com.illoy.roombooking.dto.response.QueryStatisticsResponse;
+import com.illoy.roombooking.service.QueryStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/queries")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class AdminQueryController {
+
+    private final QueryStatisticsService queryStatisticsService;
+
+    // формы запросов по суммарному времени, последние медленные запросы, счётчики Hibernate
+    @GetMapping
+    public ResponseEntity<QueryStatisticsResponse> findQueryStatistics(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(queryStatisticsService.snapshot(limit));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> resetQueryStatistics() {
+        queryStatisticsService.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
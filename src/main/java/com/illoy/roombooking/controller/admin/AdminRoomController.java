@@ -1,5 +1,6 @@
 package com.illoy.roombooking.controller.admin;
 
+import com.illoy.roombooking.controller.ConditionalRequests;
 import com.illoy.roombooking.dto.request.RoomCreateEditRequest;
 import com.illoy.roombooking.dto.response.RoomResponse;
 import com.illoy.roombooking.group.CreateAction;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/admin/rooms")
@@ -23,13 +25,24 @@ public class AdminRoomController {
 
     // получить все комнаты
     @GetMapping
-    public ResponseEntity<List<RoomResponse>> findAll() {
+    public ResponseEntity<List<RoomResponse>> findAll(WebRequest webRequest) {
+        if (ConditionalRequests.notModified(webRequest, roomService.allRoomsVersion())) {
+            return null;
+        }
+
         return ResponseEntity.ok(roomService.findAll());
     }
 
     // получить отдельную любую комнату по id
     @GetMapping("/{roomId}")
-    public ResponseEntity<RoomResponse> findById(@PathVariable("roomId") Long id) {
+    public ResponseEntity<RoomResponse> findById(@PathVariable("roomId") Long id, WebRequest webRequest) {
+        if (roomService
+                .roomVersion(id)
+                .filter(version -> ConditionalRequests.notModified(webRequest, version))
+                .isPresent()) {
+            return null;
+        }
+
         return ResponseEntity.ok(roomService.findById(id));
     }
 
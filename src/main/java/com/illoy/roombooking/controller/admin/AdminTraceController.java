@@ -0,0 +1,34 @@
+package com.illoy.roombooking.controller.admin;
+
+import com.illoy.roombooking.dto.response.TraceResponse;
+import com.illoy.roombooking.service.tracing.RecentSpanExporter;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/traces")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class AdminTraceController {
+
+    private final RecentSpanExporter recentSpanExporter;
+
+    // последние выбранные сэмплером трассы из памяти, новые первыми
+    @GetMapping
+    public ResponseEntity<List<TraceResponse>> findRecentTraces(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(recentSpanExporter.traces(limit));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clearRecentTraces() {
+        recentSpanExporter.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,6 +1,11 @@
 package com.illoy.roombooking.controller.admin;
 
+import com.illoy.roombooking.dto.response.ApproximateCountResponse;
+import com.illoy.roombooking.dto.response.ApproximateTopResponse;
+import com.illoy.roombooking.dto.response.DashboardResponse;
 import com.illoy.roombooking.service.BookingService;
+import com.illoy.roombooking.service.BookingSketchService;
+import com.illoy.roombooking.service.DashboardService;
 import com.illoy.roombooking.service.RoomService;
 import com.illoy.roombooking.service.UserService;
 import java.time.LocalDateTime;
@@ -23,6 +28,8 @@ public class AnalyticsController {
     private final UserService userService;
     private final RoomService roomService;
     private final BookingService bookingService;
+    private final BookingSketchService bookingSketchService;
+    private final DashboardService dashboardService;
 
     // число активных пользователей
     @GetMapping("/active-users-count")
@@ -85,4 +92,42 @@ public class AnalyticsController {
 
         return ResponseEntity.ok(bookingService.findBookingsCountByDow(start, end));
     }
+
+    // вся статистика дашборда одним запросом (секции считаются параллельно)
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardResponse> findDashboard(
+            @RequestParam LocalDateTime start,
+            @RequestParam LocalDateTime end,
+            @RequestParam(defaultValue = "5") int limit) {
+
+        return ResponseEntity.ok(dashboardService.collect(start, end, limit));
+    }
+
+    // приблизительное число уникальных бронирующих пользователей за период (HyperLogLog)
+    @GetMapping("/approx/distinct-users")
+    public ResponseEntity<ApproximateCountResponse> findApproxDistinctUsers(
+            @RequestParam LocalDateTime start, @RequestParam LocalDateTime end) {
+
+        return ResponseEntity.ok(bookingSketchService.countDistinctUsers(start, end));
+    }
+
+    // приблизительный топ пользователей по числу бронирований за период (Count-Min)
+    @GetMapping("/approx/top-users")
+    public ResponseEntity<ApproximateTopResponse> findApproxTopUsers(
+            @RequestParam LocalDateTime start,
+            @RequestParam LocalDateTime end,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(bookingSketchService.findTopUsers(start, end, limit));
+    }
+
+    // приблизительный топ комнат по числу бронирований за период (Count-Min)
+    @GetMapping("/approx/popular-rooms")
+    public ResponseEntity<ApproximateTopResponse> findApproxPopularRooms(
+            @RequestParam LocalDateTime start,
+            @RequestParam LocalDateTime end,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(bookingSketchService.findPopularRooms(start, end, limit));
+    }
 }
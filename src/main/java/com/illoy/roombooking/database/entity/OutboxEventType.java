@@ -0,0 +1,7 @@
+package com.illoy.roombooking.database.entity;
+
+public enum OutboxEventType {
+    BOOKING_CREATED,
+    BOOKING_CANCELLED,
+    BOOKING_STATUS_CHANGED
+}
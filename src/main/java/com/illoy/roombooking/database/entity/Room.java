@@ -1,5 +1,6 @@
 package com.illoy.roombooking.database.entity;
 
+import com.illoy.roombooking.service.catalog.RoomCatalogEntityListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
@@ -12,6 +13,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 @Data
 @Entity
 @Table(name = "rooms")
+@EntityListeners(RoomCatalogEntityListener.class)
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
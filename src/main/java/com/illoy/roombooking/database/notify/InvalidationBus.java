@@ -0,0 +1,167 @@
+package com.illoy.roombooking.database.notify;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+   Шина инвалидации локальных кешей между узлами.
+
+   События транзакции собираются и перед коммитом отправляются одним pg_notify тем же
+   соединением: PostgreSQL доставляет уведомление только после коммита, откат его отменяет.
+   Свой узел получает события в afterCommit, остальные - через PgNotificationListener.
+   Если уведомления могли потеряться (переподключение слушателя) или их пришло слишком
+   много, подписчики вместо событий получают resync и сбрасывают кеши целиком
+*/
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    static final String CHANNEL = "cache_invalidation";
+
+    // лимит полезной нагрузки NOTIFY - 8000 байт, оставляем запас под id узла
+    private static final int MAX_PAYLOAD_LENGTH = 7000;
+
+    private static final String NODE_SEPARATOR = "|";
+    private static final String EVENT_SEPARATOR = ",";
+
+    private final PgNotifier notifier;
+
+    @Value("${spring.application.notify.max-batch-events:500}")
+    private int maxBatchEvents;
+
+    private final Map<InvalidationEvent.Entity, List<Consumer<InvalidationEvent>>> subscribers =
+            new ConcurrentHashMap<>();
+    private final List<Runnable> resyncHandlers = new CopyOnWriteArrayList<>();
+
+    public InvalidationBus(PgNotifier notifier, PgNotificationListener listener) {
+        this.notifier = notifier;
+
+        listener.subscribe(CHANNEL, this::receive);
+        listener.onReconnect(this::resync);
+    }
+
+    public void subscribe(InvalidationEvent.Entity entity, Consumer<InvalidationEvent> handler) {
+        subscribers.computeIfAbsent(entity, key -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    public void onResync(Runnable handler) {
+        resyncHandlers.add(handler);
+    }
+
+    public void publish(InvalidationEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(event));
+            dispatch(List.of(event));
+            return;
+        }
+
+        pendingEvents().add(event);
+    }
+
+    public void resync() {
+        log.info("Resynchronizing local caches");
+        resyncHandlers.forEach(this::runSafely);
+    }
+
+    private Set<InvalidationEvent> pendingEvents() {
+        @SuppressWarnings("unchecked")
+        Set<InvalidationEvent> pending = (Set<InvalidationEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        Set<InvalidationEvent> created = new LinkedHashSet<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                send(created);
+            }
+
+            @Override
+            public void afterCommit() {
+                dispatch(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationBus.this);
+            }
+        });
+        return created;
+    }
+
+    private void send(Collection<InvalidationEvent> events) {
+        String prefix = notifier.getNodeId() + NODE_SEPARATOR;
+        StringBuilder payload = new StringBuilder(prefix);
+
+        for (InvalidationEvent event : events) {
+            String encoded = event.encode();
+
+            if (payload.length() + encoded.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                notifier.publish(CHANNEL, payload.toString());
+                payload.setLength(prefix.length());
+            }
+
+            if (payload.length() > prefix.length()) payload.append(EVENT_SEPARATOR);
+            payload.append(encoded);
+        }
+
+        if (payload.length() > prefix.length()) {
+            notifier.publish(CHANNEL, payload.toString());
+        }
+    }
+
+    // пачка уведомлений, накопленных слушателем за окно склейки
+    private void receive(List<String> payloads) {
+        Set<InvalidationEvent> events = new LinkedHashSet<>();
+
+        try {
+            for (String payload : payloads) {
+                int separator = payload.indexOf(NODE_SEPARATOR);
+                if (payload.substring(0, separator).equals(notifier.getNodeId())) {
+                    // свои события уже обработаны в afterCommit
+                    continue;
+                }
+
+                for (String event : payload.substring(separator + 1).split(EVENT_SEPARATOR)) {
+                    events.add(InvalidationEvent.decode(event));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Malformed invalidation payload, falling back to full resync", e);
+            resync();
+            return;
+        }
+
+        if (events.size() > maxBatchEvents) {
+            resync();
+            return;
+        }
+
+        dispatch(events);
+    }
+
+    private void dispatch(Collection<InvalidationEvent> events) {
+        for (InvalidationEvent event : events) {
+            subscribers
+                    .getOrDefault(event.getEntity(), List.of())
+                    .forEach(handler -> runSafely(() -> handler.accept(event)));
+        }
+    }
+
+    private void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.error("Invalidation handler failed", e);
+        }
+    }
+}
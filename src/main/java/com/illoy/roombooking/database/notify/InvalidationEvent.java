@@ -0,0 +1,43 @@
+package com.illoy.roombooking.database.notify;
+
+import java.time.LocalDate;
+import lombok.Value;
+
+@Value
+public class InvalidationEvent {
+
+    public enum Entity {
+        ROOM,
+        USER,
+        BOOKING
+    }
+
+    Entity entity;
+    Long id;
+
+    // только для бронирований: день начала, по нему сбрасывается кеш аналитики
+    LocalDate day;
+
+    public static InvalidationEvent room(Long id) {
+        return new InvalidationEvent(Entity.ROOM, id, null);
+    }
+
+    public static InvalidationEvent user(Long id) {
+        return new InvalidationEvent(Entity.USER, id, null);
+    }
+
+    public static InvalidationEvent booking(Long id, LocalDate day) {
+        return new InvalidationEvent(Entity.BOOKING, id, day);
+    }
+
+    // формат: ROOM:12, USER:7, BOOKING:42:2024-01-20
+    String encode() {
+        return entity + ":" + id + (day == null ? "" : ":" + day);
+    }
+
+    static InvalidationEvent decode(String value) {
+        String[] parts = value.split(":");
+        return new InvalidationEvent(
+                Entity.valueOf(parts[0]), Long.valueOf(parts[1]), parts.length > 2 ? LocalDate.parse(parts[2]) : null);
+    }
+}
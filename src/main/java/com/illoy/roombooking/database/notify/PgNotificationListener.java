@@ -0,0 +1,192 @@
+package com.illoy.roombooking.database.notify;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/*
+   Слушает каналы LISTEN/NOTIFY на отдельном соединении с primary (не из пула,
+   чтобы не держать соединение Hikari всё время работы приложения).
+   Уведомления, пришедшие в течение coalesce-ms после первого, отдаются подписчику одной пачкой.
+   После обрыва соединение открывается заново, а подписчики получают onReconnect:
+   уведомления, пришедшие за время обрыва, потеряны
+*/
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PgNotificationListener implements SmartLifecycle {
+
+    // по нему соединение слушателя видно в pg_stat_activity
+    public static final String APPLICATION_NAME = "roombooking-notify-listener";
+
+    private final DataSourceProperties dataSourceProperties;
+
+    @Value("${spring.application.notify.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.application.notify.poll-timeout-ms:500}")
+    private int pollTimeoutMs;
+
+    @Value("${spring.application.notify.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    @Value("${spring.application.notify.coalesce-ms:50}")
+    private long coalesceMs;
+
+    private final Map<String, List<Consumer<List<String>>>> subscribers = new ConcurrentHashMap<>();
+    private final List<Runnable> reconnectHandlers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread thread;
+
+    public void subscribe(String channel, Consumer<List<String>> handler) {
+        subscribers
+                .computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>())
+                .add(handler);
+    }
+
+    public void onReconnect(Runnable handler) {
+        reconnectHandlers.add(handler);
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || subscribers.isEmpty()) {
+            return;
+        }
+
+        running = true;
+        thread = Thread.ofPlatform().name("pg-notify-listener").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean firstConnect = true;
+
+        while (running) {
+            try (Connection connection = connect()) {
+
+                try (Statement statement = connection.createStatement()) {
+                    for (String channel : subscribers.keySet()) {
+                        statement.execute("LISTEN \"" + channel + "\"");
+                    }
+                }
+
+                connected = true;
+                if (!firstConnect) {
+                    log.info("Notification listener reconnected, resynchronizing caches");
+                    reconnectHandlers.forEach(this::runSafely);
+                }
+                firstConnect = false;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        dispatch(coalesce(pgConnection, notifications));
+                    }
+                }
+            } catch (SQLException e) {
+                connected = false;
+                if (running) {
+                    log.warn("Notification listener connection lost: {}", e.getMessage());
+                    pause();
+                }
+            }
+        }
+
+        connected = false;
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            properties.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        properties.setProperty("ApplicationName", APPLICATION_NAME);
+
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    // добирает уведомления, пришедшие за окно склейки, и группирует их по каналам
+    private Map<String, List<String>> coalesce(PGConnection pgConnection, PGNotification[] first) throws SQLException {
+        Map<String, List<String>> batch = new LinkedHashMap<>();
+        long deadline = System.currentTimeMillis() + coalesceMs;
+
+        PGNotification[] notifications = first;
+        while (true) {
+            for (PGNotification notification : notifications) {
+                batch.computeIfAbsent(notification.getName(), key -> new ArrayList<>())
+                        .add(notification.getParameter());
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) break;
+
+            notifications = pgConnection.getNotifications((int) remaining);
+            if (notifications == null || notifications.length == 0) break;
+        }
+
+        return batch;
+    }
+
+    private void dispatch(Map<String, List<String>> batch) {
+        batch.forEach((channel, payloads) -> subscribers
+                .getOrDefault(channel, List.of())
+                .forEach(handler -> runSafely(() -> handler.accept(payloads))));
+    }
+
+    private void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.error("Notification handler failed", e);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.illoy.roombooking.database.notify;
+
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+   Отправляет уведомления через pg_notify.
+   Внутри транзакции уведомление уходит тем же соединением, поэтому PostgreSQL доставит его
+   слушателям только после коммита, а при откате не доставит вовсе
+*/
+@Component
+@RequiredArgsConstructor
+public class PgNotifier {
+
+    // по нему узел отличает свои уведомления от чужих
+    private static final String NODE_ID = UUID.randomUUID().toString();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void publish(String channel, String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+    }
+
+    public String getNodeId() {
+        return NODE_ID;
+    }
+}
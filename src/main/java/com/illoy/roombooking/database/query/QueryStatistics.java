@@ -0,0 +1,125 @@
+package com.illoy.roombooking.database.query;
+
+import com.illoy.roombooking.dto.response.QueryShapeResponse;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+   Число выполнений и распределение задержек по формам запросов (StatementShapes).
+   Гистограмма - степени двойки в микросекундах: от 1 мкс до ~16 с, запись без блокировок.
+   Число форм ограничено, остальное копится в OTHER_SHAPE
+*/
+@Component
+public class QueryStatistics {
+
+    static final String OTHER_SHAPE = "<other>";
+
+    private static final int BUCKETS = 25;
+
+    @Value("${spring.application.query-stats.max-shapes:500}")
+    private int maxShapes;
+
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+
+    void record(String shape, long nanos) {
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null) {
+            String key = shapes.size() < maxShapes ? shape : OTHER_SHAPE;
+            stats = shapes.computeIfAbsent(key, k -> new ShapeStats());
+        }
+        stats.record(nanos);
+    }
+
+    public List<QueryShapeResponse> top(int limit) {
+        return shapes.entrySet().stream()
+                .map(entry -> entry.getValue().toResponse(entry.getKey()))
+                .sorted(Comparator.comparingDouble(QueryShapeResponse::getTotalMs)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    private static final class ShapeStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            buckets.incrementAndGet(bucket(nanos));
+        }
+
+        QueryShapeResponse toResponse(String shape) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+
+            // ключ - верхняя граница корзины в мс, пустые корзины не выводятся
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKETS; i++) {
+                if (snapshot[i] > 0) {
+                    histogram.put(i == BUCKETS - 1 ? "+Inf" : String.valueOf(upperBoundMs(i)), snapshot[i]);
+                }
+            }
+
+            long executions = count.sum();
+            double maxMs = toMs(maxNanos.get());
+            return QueryShapeResponse.builder()
+                    .shape(shape)
+                    .count(executions)
+                    .totalMs(toMs(totalNanos.sum()))
+                    .meanMs(executions == 0 ? 0 : toMs(totalNanos.sum()) / executions)
+                    .p50Ms(Math.min(percentileMs(snapshot, total, 0.50), maxMs))
+                    .p95Ms(Math.min(percentileMs(snapshot, total, 0.95), maxMs))
+                    .p99Ms(Math.min(percentileMs(snapshot, total, 0.99), maxMs))
+                    .maxMs(maxMs)
+                    .histogram(histogram)
+                    .build();
+        }
+
+        // оценка сверху: граница корзины, в которую попадает перцентиль
+        private static double percentileMs(long[] buckets, long total, double percentile) {
+            long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    return upperBoundMs(i);
+                }
+            }
+            return 0;
+        }
+
+        private static int bucket(long nanos) {
+            long micros = Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 1);
+            return Math.min(63 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        }
+
+        private static double upperBoundMs(int bucket) {
+            return (1L << (bucket + 1)) / 1000.0;
+        }
+
+        private static double toMs(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.illoy.roombooking.database.query;
+
+import java.util.Comparator;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/*
+   Слушатель datasource-proxy: время каждого выполнения (в наносекундах - своё, у прокси
+   только миллисекунды) раскладывается по формам, по текущему HTTP-запросу и в журнал медленных.
+   Пакетное выполнение считается одним запросом формы первого SQL
+*/
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.application.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatisticsListener implements QueryExecutionListener {
+
+    private static final String STARTED_AT = "query-stats.started-at";
+
+    private final QueryStatistics queryStatistics;
+    private final SlowQueryLog slowQueryLog;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        if (startedAt == null || queryInfoList.isEmpty()) {
+            return;
+        }
+
+        long nanos = System.nanoTime() - startedAt;
+        QueryInfo query = queryInfoList.getFirst();
+        String shape = StatementShapes.of(query.getQuery());
+
+        queryStatistics.record(shape, nanos);
+
+        RequestStatements request = RequestStatements.current();
+        if (request != null) {
+            request.record(shape, nanos);
+        }
+
+        if (slowQueryLog.isSlow(nanos)) {
+            slowQueryLog.record(shape, parameterTypes(query), nanos, execInfo.isSuccess(), request);
+        }
+    }
+
+    private static List<String> parameterTypes(QueryInfo query) {
+        if (query.getParametersList().isEmpty()) {
+            return List.of();
+        }
+
+        return query.getParametersList().getFirst().stream()
+                .sorted(Comparator.comparingInt(QueryStatisticsListener::index))
+                .map(QueryStatisticsListener::typeOf)
+                .toList();
+    }
+
+    private static int index(ParameterSetOperation operation) {
+        return operation.getArgs()[0] instanceof Integer index ? index : Integer.MAX_VALUE;
+    }
+
+    private static String typeOf(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if (ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2 || args[1] == null) {
+            return "null";
+        }
+        return args[1].getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,54 @@
+package com.illoy.roombooking.database.query;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+
+/*
+   Запросы к БД в рамках одного HTTP-запроса (поток обработчика). Много выполнений одной формы
+   за запрос - типичный след N+1. Запросы из других потоков (SSE, задачи дашборда) сюда не попадают
+*/
+public final class RequestStatements {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    @Getter
+    private final String request;
+
+    private final Map<String, Integer> byShape = new HashMap<>();
+
+    @Getter
+    private int count;
+
+    @Getter
+    private long nanos;
+
+    private RequestStatements(String request) {
+        this.request = request;
+    }
+
+    public static RequestStatements begin(String request) {
+        RequestStatements statements = new RequestStatements(request);
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    public static RequestStatements current() {
+        return CURRENT.get();
+    }
+
+    public void end() {
+        CURRENT.remove();
+    }
+
+    void record(String shape, long elapsedNanos) {
+        count++;
+        nanos += elapsedNanos;
+        byShape.merge(shape, 1, Integer::sum);
+    }
+
+    // форма, выполненная больше всего раз, и сколько раз
+    public Map.Entry<String, Integer> mostRepeated() {
+        return byShape.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+    }
+}
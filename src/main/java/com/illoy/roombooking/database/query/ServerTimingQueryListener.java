@@ -0,0 +1,29 @@
+package com.illoy.roombooking.database.query;
+
+import com.illoy.roombooking.filter.ServerTiming;
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+// время и число запросов к БД текущего HTTP-запроса для Server-Timing (слой db)
+public class ServerTimingQueryListener implements QueryExecutionListener {
+
+    private static final String STARTED_AT = "server-timing.started-at";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (ServerTiming.current() != null) {
+            execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        ServerTiming timing = ServerTiming.current();
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        if (timing != null && startedAt != null) {
+            timing.recordQuery(System.nanoTime() - startedAt);
+        }
+    }
+}
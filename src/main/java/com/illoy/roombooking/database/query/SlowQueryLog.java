@@ -0,0 +1,73 @@
+package com.illoy.roombooking.database.query;
+
+import com.illoy.roombooking.dto.response.SlowQueryResponse;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+   Запросы дольше порога: строка key=value в логгер roombooking.slow-query и последние N записей
+   в памяти для /api/admin/queries. Значения параметров не пишутся - только их типы:
+   в них логины, email и хеши паролей
+*/
+@Slf4j(topic = "roombooking.slow-query")
+@Component
+public class SlowQueryLog {
+
+    @Value("${spring.application.query-stats.slow-threshold-ms:200}")
+    private long thresholdMs;
+
+    @Value("${spring.application.query-stats.slow-log-size:100}")
+    private int capacity;
+
+    private final Deque<SlowQueryResponse> recent = new ArrayDeque<>();
+
+    boolean isSlow(long nanos) {
+        return nanos >= thresholdMs * 1_000_000;
+    }
+
+    void record(String shape, List<String> parameterTypes, long nanos, boolean success, RequestStatements request) {
+        SlowQueryResponse entry = SlowQueryResponse.builder()
+                .at(Instant.now())
+                .elapsedMs(nanos / 1_000_000.0)
+                .shape(shape)
+                .parameters(parameterTypes)
+                .success(success)
+                .request(request == null ? null : request.getRequest())
+                .build();
+
+        log.warn(
+                "slow_query elapsed_ms={} success={} request=\"{}\" params={} sql=\"{}\"",
+                String.format("%.1f", entry.getElapsedMs()),
+                success,
+                entry.getRequest() == null ? "-" : entry.getRequest(),
+                parameterTypes,
+                shape.replace("\"", "\\\""));
+
+        synchronized (recent) {
+            if (recent.size() == capacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(entry);
+        }
+    }
+
+    // новые первыми
+    public List<SlowQueryResponse> recent() {
+        synchronized (recent) {
+            List<SlowQueryResponse> entries = new ArrayList<>(recent);
+            return entries.reversed();
+        }
+    }
+
+    public void clear() {
+        synchronized (recent) {
+            recent.clear();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.illoy.roombooking.database.query;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/*
+   Форма запроса: SQL без значений. Литералы заменяются на ?, списки IN (?, ?, ?) сворачиваются,
+   пробелы схлопываются - запросы, отличающиеся только данными, попадают в одну строку статистики.
+
+   Hibernate выполняет небольшой фиксированный набор SQL-строк, поэтому форма запоминается по строке
+   и регулярные выражения работают один раз на запрос, а не на каждое выполнение. Строк с литералами
+   может быть сколько угодно: после MAX_CACHED форма новых строк считается без запоминания
+*/
+final class StatementShapes {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int MAX_CACHED = 1024;
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+    private StatementShapes() {}
+
+    static String of(String sql) {
+        String cached = CACHE.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+
+        String shape = compute(sql);
+        if (CACHE.size() < MAX_CACHED) {
+            CACHE.putIfAbsent(sql, shape);
+        }
+        return shape;
+    }
+
+    private static String compute(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
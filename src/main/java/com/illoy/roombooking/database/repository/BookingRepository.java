@@ -2,12 +2,18 @@ package com.illoy.roombooking.database.repository;
 
 import com.illoy.roombooking.database.entity.Booking;
 import com.illoy.roombooking.database.entity.BookingStatus;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -23,6 +29,12 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    // Комнаты, занятые в интервале (для фильтра свободных комнат)
+    @Query("SELECT DISTINCT b.room.id FROM Booking b "
+            + "WHERE b.status IN ('CONFIRMED', 'PENDING') "
+            + "AND b.startTime < :endTime AND b.endTime > :startTime")
+    Set<Long> findBusyRoomIds(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+
     // Бронирования пользователя
 
     Page<Booking> findByUserIdOrderByStartTimeDesc(Long userId, Pageable pageable);
@@ -68,4 +80,67 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             + "WHERE b.startTime BETWEEN :start AND :end "
             + "GROUP BY b.status")
     List<Object[]> getCountGroupByStatus(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Потоковая выгрузка для аналитических скетчей: [from, to); только id, имена подставляются при ответе
+    @Query("SELECT b.startTime, b.user.id, b.room.id "
+            + "FROM Booking b WHERE b.startTime >= :from AND b.startTime < :to")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamAnalyticsRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // для условных запросов: проверка доступа и ETag без загрузки бронирования; в ответе есть и данные комнаты
+    @Query("SELECT b.updatedAt AS updatedAt, r.updatedAt AS roomUpdatedAt, u.username AS username "
+            + "FROM Booking b JOIN b.room r JOIN b.user u WHERE b.id = :id")
+    Optional<Version> findVersionById(@Param("id") Long id);
+
+    interface Version {
+        LocalDateTime getUpdatedAt();
+
+        LocalDateTime getRoomUpdatedAt();
+
+        String getUsername();
+    }
+
+    // календарные ленты (.ics): версия и курсор по бронированиям пользователя начиная с from
+    @Query("SELECT COUNT(b) AS count, MAX(b.updatedAt) AS updatedAt FROM Booking b "
+            + "WHERE b.user.username = :username AND b.startTime >= :from")
+    FeedVersion findUserFeedVersion(@Param("username") String username, @Param("from") LocalDateTime from);
+
+    @Query("SELECT b.id, b.startTime, b.endTime, b.status, b.updatedAt, r.name "
+            + "FROM Booking b JOIN b.room r "
+            + "WHERE b.user.username = :username AND b.startTime >= :from ORDER BY b.startTime")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Object[]> streamUserFeed(@Param("username") String username, @Param("from") LocalDateTime from);
+
+    // в ленте комнаты только действующие бронирования
+    @Query("SELECT COUNT(b) AS count, MAX(b.updatedAt) AS updatedAt FROM Booking b "
+            + "WHERE b.room.id = :roomId AND b.startTime >= :from AND b.status IN ('CONFIRMED', 'PENDING')")
+    FeedVersion findRoomFeedVersion(@Param("roomId") Long roomId, @Param("from") LocalDateTime from);
+
+    @Query("SELECT b.id, b.startTime, b.endTime, b.status, b.updatedAt, r.name "
+            + "FROM Booking b JOIN b.room r "
+            + "WHERE r.id = :roomId AND b.startTime >= :from AND b.status IN ('CONFIRMED', 'PENDING') "
+            + "ORDER BY b.startTime")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Object[]> streamRoomFeed(@Param("roomId") Long roomId, @Param("from") LocalDateTime from);
+
+    interface FeedVersion {
+        long getCount();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    // слот бронирования для дельт занятости (SSE)
+    @Query("SELECT b.room.id AS roomId, b.startTime AS startTime, b.endTime AS endTime, b.status AS status "
+            + "FROM Booking b WHERE b.id = :id")
+    Optional<Slot> findSlotById(@Param("id") Long id);
+
+    interface Slot {
+        Long getRoomId();
+
+        LocalDateTime getStartTime();
+
+        LocalDateTime getEndTime();
+
+        BookingStatus getStatus();
+    }
 }
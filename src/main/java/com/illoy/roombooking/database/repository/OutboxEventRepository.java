@@ -0,0 +1,38 @@
+package com.illoy.roombooking.database.repository;
+
+import com.illoy.roombooking.database.entity.OutboxEvent;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // старейшие неопубликованные события; строки, занятые релеем другого узла, пропускаются
+    @Query(
+            value = "SELECT * FROM booking_outbox WHERE published_at IS NULL "
+                    + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    // [room_id, min(id)] по неопубликованным событиям комнат
+    @Query("SELECT e.roomId, MIN(e.id) FROM OutboxEvent e "
+            + "WHERE e.publishedAt IS NULL AND e.roomId IN :roomIds "
+            + "GROUP BY e.roomId")
+    List<Object[]> findOldestUnpublishedByRoom(@Param("roomIds") Collection<Long> roomIds);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+
+    long countByPublishedAtIsNull();
+}
@@ -1,6 +1,7 @@
 package com.illoy.roombooking.database.repository;
 
 import com.illoy.roombooking.database.entity.Room;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -25,8 +26,9 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     @Query("SELECT r FROM Room r WHERE r.isActive = true AND r.capacity >= :minCapacity")
     List<Room> findActiveRoomsByCapacity(@Param("minCapacity") Integer minCapacity);
 
+    // массовый UPDATE не вызывает @UpdateTimestamp, а по updatedAt считается ETag
     @Modifying
-    @Query("UPDATE Room r SET r.isActive = :active WHERE r.id = :roomId")
+    @Query("UPDATE Room r SET r.isActive = :active, r.updatedAt = LOCAL DATETIME WHERE r.id = :roomId")
     void updateRoomStatus(@Param("roomId") Long roomId, @Param("active") boolean active);
 
     @Query("SELECT COUNT(r) FROM Room r WHERE r.isActive = true")
@@ -34,4 +36,16 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
 
     @Query("SELECT r FROM Room r WHERE LOWER(r.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) AND r.isActive = true")
     List<Room> searchActiveRoomsByName(@Param("searchTerm") String searchTerm);
+
+    @Query("SELECT r.updatedAt FROM Room r WHERE r.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(r) AS count, MAX(r.updatedAt) AS updatedAt FROM Room r")
+    Version findVersion();
+
+    interface Version {
+        long getCount();
+
+        LocalDateTime getUpdatedAt();
+    }
 }
@@ -0,0 +1,42 @@
+package com.illoy.roombooking.database.routing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+   Запоминает пользователей, которые только что изменили свои бронирования.
+   Их read-only запросы какое-то время идут на primary, чтобы не увидеть отстающую реплику
+*/
+@Component
+public class ReadYourWritesTracker {
+
+    @Value("${spring.application.datasource.stickiness-ms:5000}")
+    private long stickinessMs;
+
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public void recordWrite(String username) {
+        stickyUntil.put(username, System.currentTimeMillis() + stickinessMs);
+    }
+
+    public boolean isSticky(String username) {
+        Long until = stickyUntil.get(username);
+        if (until == null) {
+            return false;
+        }
+
+        if (until < System.currentTimeMillis()) {
+            stickyUntil.remove(username, until);
+            return false;
+        }
+
+        return true;
+    }
+
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        stickyUntil.values().removeIf(until -> until < now);
+    }
+}
@@ -0,0 +1,72 @@
+package com.illoy.roombooking.database.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.*;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/*
+   Периодически проверяет отставание реплик.
+   Реплика считается догнавшей, если весь полученный WAL уже применён, иначе отставание -
+   время с последней применённой транзакции. Недоступная реплика исключается из ротации
+*/
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final String LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final Map<String, HikariDataSource> replicas;
+    private final long maxLagMs;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private volatile List<String> healthy = List.of();
+
+    public ReplicaLagMonitor(
+            Map<String, HikariDataSource> replicas, long maxLagMs, ReadYourWritesTracker readYourWritesTracker) {
+        this.replicas = replicas;
+        this.maxLagMs = maxLagMs;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    public Map<String, ? extends DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public List<String> healthyReplicas() {
+        return healthy;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${spring.application.datasource.lag-check-interval-ms:5000}")
+    public void checkReplicas() {
+        List<String> result = new ArrayList<>();
+
+        replicas.forEach((name, dataSource) -> {
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+
+                resultSet.next();
+                double lagMs = resultSet.getDouble(1);
+
+                if (lagMs <= maxLagMs) result.add(name);
+                else log.warn("Replica {} lags behind primary by {} ms, routing reads to primary", name, lagMs);
+            } catch (Exception e) {
+                log.warn("Replica {} is unavailable: {}", name, e.getMessage());
+            }
+        });
+
+        healthy = List.copyOf(result);
+        readYourWritesTracker.removeExpired();
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,11 @@
+package com.illoy.roombooking.dto.response;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ApproximateCountResponse {
+    long estimate;
+    double relativeStandardError;
+}
@@ -0,0 +1,16 @@
+package com.illoy.roombooking.dto.response;
+
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ApproximateTopResponse {
+    Map<String, Long> counts;
+    long totalBookings;
+
+    // каждая оценка завышена не более чем на maxOverestimate с вероятностью confidence
+    long maxOverestimate;
+    double confidence;
+}
@@ -0,0 +1,17 @@
+package com.illoy.roombooking.dto.response;
+
+import java.time.LocalDate;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class AvailabilityDelta {
+    Long roomId;
+    Long bookingId;
+    LocalDate date;
+    TimeSlot slot;
+
+    // true - слот занят, false - освобождён (отмена, завершение)
+    boolean busy;
+}
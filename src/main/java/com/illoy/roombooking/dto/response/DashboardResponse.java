@@ -0,0 +1,12 @@
+package com.illoy.roombooking.dto.response;
+
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class DashboardResponse {
+    Map<String, DashboardSection> sections;
+    long totalMs;
+}
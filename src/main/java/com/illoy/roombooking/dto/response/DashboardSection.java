@@ -0,0 +1,19 @@
+package com.illoy.roombooking.dto.response;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class DashboardSection {
+    Status status;
+    Object data;
+    long durationMs;
+    String error;
+
+    public enum Status {
+        OK,
+        FAILED,
+        TIMEOUT
+    }
+}
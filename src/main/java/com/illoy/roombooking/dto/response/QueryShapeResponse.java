@@ -0,0 +1,20 @@
+package com.illoy.roombooking.dto.response;
+
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class QueryShapeResponse {
+    String shape;
+    long count;
+    double totalMs;
+    double meanMs;
+    double p50Ms;
+    double p95Ms;
+    double p99Ms;
+    double maxMs;
+    // верхняя граница корзины в мс -> число выполнений
+    Map<String, Long> histogram;
+}
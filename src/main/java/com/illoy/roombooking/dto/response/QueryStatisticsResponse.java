@@ -0,0 +1,16 @@
+package com.illoy.roombooking.dto.response;
+
+import java.util.List;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class QueryStatisticsResponse {
+    List<QueryShapeResponse> shapes;
+    List<SlowQueryResponse> slowQueries;
+    // счётчики Hibernate Statistics; пусто, если hibernate.generate_statistics выключен
+    Map<String, Long> hibernate;
+    String hibernateSlowestQuery;
+}
@@ -0,0 +1,37 @@
+package com.illoy.roombooking.dto.response;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import lombok.Value;
+
+/*
+   Версия ресурса для условных запросов: ETag (без кавычек, их добавляет Spring)
+   и Last-Modified в миллисекундах, -1 если неизвестно
+*/
+@Value
+public class ResourceVersion {
+
+    String etag;
+    long lastModified;
+
+    public static ResourceVersion of(String etag, LocalDateTime updatedAt) {
+        return new ResourceVersion(etag, toMillis(updatedAt));
+    }
+
+    // PostgreSQL хранит timestamp с точностью до микросекунд, а сущность до перечитывания - с наносекундами
+    public static String stamp(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return "0";
+        }
+
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return Long.toString(micros, 36);
+    }
+
+    private static long toMillis(LocalDateTime updatedAt) {
+        return updatedAt == null
+                ? -1
+                : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
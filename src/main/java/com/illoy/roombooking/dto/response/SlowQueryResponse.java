@@ -0,0 +1,18 @@
+package com.illoy.roombooking.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class SlowQueryResponse {
+    Instant at;
+    double elapsedMs;
+    String shape;
+    // типы параметров, значения не сохраняются
+    List<String> parameters;
+    boolean success;
+    String request;
+}
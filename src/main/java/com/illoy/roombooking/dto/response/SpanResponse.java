@@ -0,0 +1,19 @@
+package com.illoy.roombooking.dto.response;
+
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class SpanResponse {
+    String spanId;
+    String parentSpanId;
+    String name;
+    String kind;
+    // от начала первого спана трассы
+    double startOffsetMs;
+    double durationMs;
+    String status;
+    Map<String, String> attributes;
+}
@@ -0,0 +1,17 @@
+package com.illoy.roombooking.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class TraceResponse {
+    String traceId;
+    String name;
+    Instant startedAt;
+    double durationMs;
+    // в порядке начала
+    List<SpanResponse> spans;
+}
@@ -0,0 +1,7 @@
+package com.illoy.roombooking.exception;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
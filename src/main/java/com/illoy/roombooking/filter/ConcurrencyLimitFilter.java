@@ -0,0 +1,66 @@
+package com.illoy.roombooking.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.concurrency.limits.Limiter;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/*
+   Адаптивный предел одновременных запросов группы эндпоинтов (concurrency-limits).
+   Предел подстраивается по времени ответа: растёт, пока задержка не меняется, и падает,
+   когда запросы начинают ждать CPU или пул соединений. Сверх предела - сразу 503, без очереди
+*/
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Limiter<Void> limiter;
+    // null - любой метод
+    private final String method;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return method != null && !method.equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Optional<Limiter.Listener> acquired = limiter.acquire(null);
+        if (acquired.isEmpty()) {
+            rejected.increment();
+            Rejections.reject(
+                    response,
+                    objectMapper,
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "SERVER_BUSY",
+                    "Server is overloaded, retry later",
+                    1);
+            return;
+        }
+
+        Limiter.Listener listener = acquired.get();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed) {
+                listener.onSuccess();
+            } else {
+                // время упавшего запроса ничего не говорит о нагрузке
+                listener.onIgnore();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.illoy.roombooking.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/*
+   Ограничивает число одновременно обрабатываемых запросов в режиме виртуальных потоков.
+   Без него тысячи виртуальных потоков одновременно ждут соединение HikariCP и отваливаются
+   по connection-timeout, а так лишние запросы быстро получают 503
+*/
+@Slf4j
+@RequiredArgsConstructor
+public class ConnectionPoolGuardFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            log.warn("Request rejected, no free connection permits: {}", request.getRequestURI());
+            reject(response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        Rejections.reject(
+                response,
+                objectMapper,
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "SERVER_BUSY",
+                "Server is overloaded, retry later",
+                1);
+    }
+}
@@ -0,0 +1,74 @@
+package com.illoy.roombooking.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.service.ratelimit.RateLimitRule;
+import com.illoy.roombooking.service.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/*
+   Ограничение частоты запросов корзиной токенов: для вошедшего пользователя - по имени,
+   для анонимного (вход, регистрация) - по IP. Стоит после Spring Security, поэтому пользователь
+   уже известен. Лишние запросы сразу получают 429 с Retry-After, не доходя до BCrypt и БД
+*/
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitRule rule;
+    // null - любой метод
+    private final String method;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return method != null && !method.equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String key = key(request);
+        long retryAfterMs = rateLimiter.tryAcquire(rule, key);
+
+        if (retryAfterMs > 0) {
+            rejected.increment();
+            log.debug("Rate limit {} exceeded by {}", rule.name(), key);
+            Rejections.reject(
+                    response,
+                    objectMapper,
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    "TOO_MANY_REQUESTS",
+                    "Too many requests, retry later",
+                    Math.max(1, (retryAfterMs + 999) / 1000));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // адрес клиента за балансировщиком - через server.forward-headers-strategy, не разбором X-Forwarded-For
+    private static String key(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null
+                && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
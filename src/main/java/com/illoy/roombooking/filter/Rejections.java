@@ -0,0 +1,37 @@
+package com.illoy.roombooking.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.exception.ErrorResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+// отказ из фильтра в том же формате, что и у GlobalExceptionHandler: до контроллера он не доходит
+final class Rejections {
+
+    private Rejections() {}
+
+    static void reject(
+            HttpServletResponse response,
+            ObjectMapper objectMapper,
+            HttpStatus status,
+            String error,
+            String message,
+            long retryAfterSeconds)
+            throws IOException {
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+
+        ErrorResponse body = ErrorResponse.builder()
+                .error(error)
+                .message(message)
+                .status(status.value())
+                .build();
+
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
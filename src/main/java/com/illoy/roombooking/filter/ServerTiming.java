@@ -0,0 +1,105 @@
+package com.illoy.roombooking.filter;
+
+import java.util.Locale;
+
+/*
+   Время обработки одного HTTP-запроса по слоям для заголовка Server-Timing. Живёт в потоке
+   обработчика между begin и end (ServerTimingFilter); вне запроса current() - null, и все
+   источники (фильтр JWT, слушатель запросов, аспект мапперов, запись тела) ничего не делают.
+   Слои могут пересекаться: запросы при загрузке пользователя или ленивой загрузке в маппере
+   попадают и в db, и в auth/mapping
+*/
+public final class ServerTiming {
+
+    public enum Phase {
+        AUTH("auth"),
+        DB("db"),
+        MAPPING("mapping"),
+        SERIALIZATION("serialization");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private final long[] nanos = new long[Phase.values().length];
+
+    private int queries;
+    private int mappingDepth;
+    private long serializationStartedAt;
+    private long totalNanos;
+
+    private ServerTiming() {}
+
+    public static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    public void end() {
+        CURRENT.remove();
+        endSerialization();
+        totalNanos = System.nanoTime() - startedAt;
+    }
+
+    public void record(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+    }
+
+    public void recordQuery(long elapsedNanos) {
+        queries++;
+        record(Phase.DB, elapsedNanos);
+    }
+
+    // мапперы вызывают друг друга: время считается только у внешнего вызова
+    public boolean enterMapping() {
+        return mappingDepth++ == 0;
+    }
+
+    public void exitMapping() {
+        mappingDepth--;
+    }
+
+    // сериализация - от отметки перед записью тела до flush() тела конвертером (или до end)
+    public void markSerialization() {
+        if (serializationStartedAt == 0) {
+            serializationStartedAt = System.nanoTime();
+        }
+    }
+
+    public void endSerialization() {
+        if (serializationStartedAt != 0) {
+            record(Phase.SERIALIZATION, System.nanoTime() - serializationStartedAt);
+            serializationStartedAt = 0;
+        }
+    }
+
+    public String header() {
+        StringBuilder header = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            metric(header, phase.metric, nanos[phase.ordinal()]);
+            if (phase == Phase.DB) {
+                header.append(";desc=\"").append(queries).append(" queries\"");
+            }
+        }
+        metric(header, "total", totalNanos);
+        return header.toString();
+    }
+
+    private static void metric(StringBuilder header, String name, long elapsedNanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", elapsedNanos / 1e6));
+    }
+}
@@ -0,0 +1,44 @@
+package com.illoy.roombooking.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/*
+   Заголовок Server-Timing с разбивкой запроса по слоям (см. ServerTiming).
+   Время сериализации известно только после записи тела, а заголовки уходят раньше него,
+   поэтому тело буферизуется и отправляется после подсчёта. Потоковые ответы (SSE, .ics)
+   и большие тела не буферизуются, см. ServerTimingResponse
+*/
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final String allowOrigin;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        ServerTiming timing = ServerTiming.begin();
+        ServerTimingResponse buffered = new ServerTimingResponse(response);
+        try {
+            filterChain.doFilter(request, buffered);
+        } finally {
+            timing.end();
+            // после sendError или начала потока ответ уже отправлен, заголовок не добавить
+            if (!response.isCommitted()) {
+                response.setHeader("Server-Timing", timing.header());
+                // без него браузер не отдаёт Server-Timing странице с другого origin
+                if (StringUtils.hasText(allowOrigin)) {
+                    response.setHeader("Timing-Allow-Origin", allowOrigin);
+                }
+            }
+            buffered.copyBodyToResponse();
+        }
+    }
+}
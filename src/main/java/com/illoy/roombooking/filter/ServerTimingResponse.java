@@ -0,0 +1,221 @@
+package com.illoy.roombooking.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.FastByteArrayOutputStream;
+
+/*
+   Ответ для ServerTimingFilter: тело копится в памяти, чтобы заголовок Server-Timing ушёл перед ним.
+   Потоковые ответы (SSE, ленты iCalendar) пишутся напрямую - это решается по Content-Type при первом
+   обращении к телу или flushBuffer. Тело больше MAX_BUFFERED и неблокирующая запись (WriteListener)
+   тоже уходят напрямую, уже без заголовка.
+   flush() тела конвертером - конец сериализации (см. ServerTiming.endSerialization)
+*/
+final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+    private static final int MAX_BUFFERED = 1024 * 1024;
+
+    private static final List<MediaType> STREAMED =
+            List.of(MediaType.TEXT_EVENT_STREAM, new MediaType("text", "calendar"));
+
+    private final FastByteArrayOutputStream buffer = new FastByteArrayOutputStream();
+
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private boolean passthrough;
+
+    ServerTimingResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (isPassthrough()) {
+            return super.getOutputStream();
+        }
+
+        if (outputStream == null) {
+            outputStream = new BufferingOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (isPassthrough()) {
+            return super.getWriter();
+        }
+
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        // в буферизующем режиме flush не должен фиксировать заголовки
+        if (isPassthrough()) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        if (isPassthrough()) {
+            super.setContentLength(length);
+        }
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        if (isPassthrough()) {
+            super.setContentLengthLong(length);
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        buffer.reset();
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        buffer.reset();
+        super.reset();
+    }
+
+    @Override
+    public void sendError(int status) throws IOException {
+        buffer.reset();
+        super.sendError(status);
+    }
+
+    @Override
+    public void sendError(int status, String message) throws IOException {
+        buffer.reset();
+        super.sendError(status, message);
+    }
+
+    // отправляет накопленное тело; заголовки к этому моменту уже выставлены фильтром
+    void copyBodyToResponse() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+
+        if (passthrough || buffer.size() == 0) {
+            return;
+        }
+
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (!response.isCommitted()) {
+            response.setContentLengthLong(buffer.size());
+        }
+        buffer.writeTo(response.getOutputStream());
+        buffer.reset();
+        response.flushBuffer();
+    }
+
+    private boolean isPassthrough() {
+        if (!passthrough && buffer.size() == 0 && isStreamed(getContentType())) {
+            passthrough = true;
+        }
+        return passthrough;
+    }
+
+    private void spill() throws IOException {
+        passthrough = true;
+        buffer.writeTo(super.getOutputStream());
+        buffer.reset();
+    }
+
+    private static boolean isStreamed(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            return STREAMED.stream().anyMatch(type::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private final class BufferingOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!passthrough && buffer.size() + 1 > MAX_BUFFERED) {
+                spill();
+            }
+
+            if (passthrough) {
+                ServerTimingResponse.super.getOutputStream().write(b);
+            } else {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (!passthrough && buffer.size() + length > MAX_BUFFERED) {
+                spill();
+            }
+
+            if (passthrough) {
+                ServerTimingResponse.super.getOutputStream().write(bytes, offset, length);
+            } else {
+                buffer.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ServerTiming timing = ServerTiming.current();
+            if (timing != null) {
+                timing.endSerialization();
+            }
+
+            if (passthrough) {
+                ServerTimingResponse.super.getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            if (!passthrough) {
+                return true;
+            }
+
+            try {
+                return ServerTimingResponse.super.getOutputStream().isReady();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // неблокирующая запись идёт напрямую, как SSE: заголовок для такого ответа теряется
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                if (!passthrough) {
+                    spill();
+                }
+                ServerTimingResponse.super.getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.illoy.roombooking.filter;
+
+import com.illoy.roombooking.database.query.RequestStatements;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/*
+   Считает запросы к БД за HTTP-запрос: распределение http.server.requests.statements
+   по методу и шаблону маршрута и предупреждение, когда запросов больше порога
+   (с формой, повторённой больше всего раз - обычно это и есть N+1)
+*/
+@Slf4j
+@RequiredArgsConstructor
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestStatements statements = RequestStatements.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statements.end();
+            report(request, statements);
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestStatements statements) {
+        // шаблон маршрута, а не URI: иначе по тегу на каждый id
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("JDBC statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.getCount());
+
+        if (statements.getCount() > warnThreshold) {
+            Map.Entry<String, Integer> repeated = statements.mostRepeated();
+            log.warn(
+                    "statement_burst request=\"{}\" uri=\"{}\" statements={} db_ms={} top_shape_count={} top_shape=\"{}\"",
+                    statements.getRequest(),
+                    uri,
+                    statements.getCount(),
+                    statements.getNanos() / 1_000_000,
+                    repeated.getValue(),
+                    repeated.getKey());
+        }
+    }
+}
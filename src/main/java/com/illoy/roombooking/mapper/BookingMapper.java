@@ -3,6 +3,7 @@ package com.illoy.roombooking.mapper;
 import com.illoy.roombooking.database.entity.Booking;
 import com.illoy.roombooking.dto.request.BookingCreateRequest;
 import com.illoy.roombooking.dto.response.BookingResponse;
+import com.illoy.roombooking.dto.response.RoomResponse;
 import org.mapstruct.*;
 
 @Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -15,6 +16,17 @@ public interface BookingMapper {
     @Mapping(target = "roomCapacity", source = "room.capacity")
     BookingResponse toResponse(Booking booking);
 
+    // комната из каталога: booking.room может быть неинициализированным прокси
+    @Mapping(target = "id", source = "booking.id")
+    @Mapping(target = "createdAt", source = "booking.createdAt")
+    @Mapping(target = "updatedAt", source = "booking.updatedAt")
+    @Mapping(target = "userId", source = "booking.user.id")
+    @Mapping(target = "userName", source = "booking.user.username")
+    @Mapping(target = "roomId", source = "room.id")
+    @Mapping(target = "roomName", source = "room.name")
+    @Mapping(target = "roomCapacity", source = "room.capacity")
+    BookingResponse toResponse(Booking booking, RoomResponse room);
+
     @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
     Booking toEntity(BookingCreateRequest request);
 }
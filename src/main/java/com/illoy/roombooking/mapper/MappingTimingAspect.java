@@ -0,0 +1,30 @@
+package com.illoy.roombooking.mapper;
+
+import com.illoy.roombooking.filter.ServerTiming;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+// время в мапперах MapStruct для Server-Timing (слой mapping), включая ленивые загрузки, которые они вызывают
+@Aspect
+public class MappingTimingAspect {
+
+    @Around("execution(public * com.illoy.roombooking.mapper.*Mapper.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServerTiming timing = ServerTiming.current();
+        if (timing == null) {
+            return joinPoint.proceed();
+        }
+
+        boolean outermost = timing.enterMapping();
+        long startedAt = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.exitMapping();
+            if (outermost) {
+                timing.record(ServerTiming.Phase.MAPPING, System.nanoTime() - startedAt);
+            }
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.illoy.roombooking.security;
 
 import com.illoy.roombooking.database.entity.User;
+import com.illoy.roombooking.database.entity.UserRole;
 import com.illoy.roombooking.database.repository.UserRepository;
 import com.illoy.roombooking.exception.UserNotAuthenticatedException;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Service;
 public class AuthenticationService {
     private final UserRepository userRepository;
 
+    @Observed(name = "auth.current.user", contextualName = "get-current-user")
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -29,4 +32,26 @@ public class AuthenticationService {
     public Long getCurrentUserId() {
         return getCurrentUser().getId();
     }
+
+    // имя из данных аутентификации, без запроса пользователя из БД
+    public String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new UserNotAuthenticatedException("User is not authenticated");
+        }
+
+        return authentication.getName();
+    }
+
+    // проверка по данным аутентификации, без запроса пользователя из БД
+    public boolean isCurrentUserOrAdmin(String username) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+
+        return authentication.getName().equals(username)
+                || authentication.getAuthorities().stream()
+                        .anyMatch(authority -> UserRole.ROLE_ADMIN.name().equals(authority.getAuthority()));
+    }
 }
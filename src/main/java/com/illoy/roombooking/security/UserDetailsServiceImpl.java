@@ -2,6 +2,7 @@ package com.illoy.roombooking.security;
 
 import com.illoy.roombooking.database.entity.User;
 import com.illoy.roombooking.database.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,6 +16,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    @Observed(name = "auth.user.load", contextualName = "load-user-by-username")
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -1,6 +1,9 @@
 package com.illoy.roombooking.security.jwt;
 
+import com.illoy.roombooking.filter.ServerTiming;
 import com.illoy.roombooking.security.UserDetailsServiceImpl;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,13 +26,33 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
+    private final ObservationRegistry observationRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        // отдельный спан: проверка токена и загрузка пользователя, без остальной цепочки;
+        // у анонимных запросов наблюдать нечего
+        String jwt = parseJwt(request);
+        if (jwt != null) {
+            ServerTiming timing = ServerTiming.current();
+            long startedAt = timing == null ? 0 : System.nanoTime();
+
+            Observation.createNotStarted("auth.token.filter", observationRegistry)
+                    .contextualName("auth-token-filter")
+                    .observe(() -> authenticate(jwt, request));
+
+            if (timing != null) {
+                timing.record(ServerTiming.Phase.AUTH, System.nanoTime() - startedAt);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(String jwt, HttpServletRequest request) {
         try {
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
+            if (jwtUtils.validateJwtToken(jwt)) {
                 String username = jwtUtils.getUserNameFromJwtToken(jwt);
 
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
@@ -44,8 +67,6 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
         }
-
-        filterChain.doFilter(request, response);
     }
 
     private String parseJwt(HttpServletRequest request) {
@@ -33,8 +33,12 @@ public class JwtUtils {
 
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
+        return generateJwtToken(userPrincipal.getUsername());
+    }
+
+    public String generateJwtToken(String username) {
         return Jwts.builder()
-                .setSubject((userPrincipal.getUsername()))
+                .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
@@ -0,0 +1,67 @@
+package com.illoy.roombooking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+   Исходы бронирований: один счётчик bookings.outcomes с тегом outcome.
+   created и cancelled засчитываются только после коммита: откат (например, при записи в outbox)
+   не должен оставлять в метриках несостоявшееся бронирование. Отказы считаются сразу
+*/
+@Component
+class BookingOutcomeMetrics {
+
+    private static final String NAME = "bookings.outcomes";
+
+    private final Counter created;
+    private final Counter conflict;
+    private final Counter timeInvalid;
+    private final Counter cancelled;
+
+    BookingOutcomeMetrics(MeterRegistry registry) {
+        created = counter(registry, "created");
+        conflict = counter(registry, "conflict");
+        timeInvalid = counter(registry, "time_invalid");
+        cancelled = counter(registry, "cancelled");
+    }
+
+    void created() {
+        afterCommit(created);
+    }
+
+    void conflict() {
+        conflict.increment();
+    }
+
+    void timeInvalid() {
+        timeInvalid.increment();
+    }
+
+    void cancelled() {
+        afterCommit(cancelled);
+    }
+
+    private static void afterCommit(Counter counter) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.increment();
+            }
+        });
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder(NAME)
+                .description("Booking create/cancel outcomes")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -1,14 +1,25 @@
 package com.illoy.roombooking.service;
 
 import com.illoy.roombooking.database.entity.*;
+import com.illoy.roombooking.database.notify.InvalidationBus;
+import com.illoy.roombooking.database.notify.InvalidationEvent;
 import com.illoy.roombooking.database.repository.BookingRepository;
 import com.illoy.roombooking.database.repository.RoomRepository;
 import com.illoy.roombooking.database.repository.UserRepository;
+import com.illoy.roombooking.database.routing.ReadYourWritesTracker;
 import com.illoy.roombooking.dto.request.BookingCreateRequest;
 import com.illoy.roombooking.dto.response.BookingResponse;
+import com.illoy.roombooking.dto.response.ResourceVersion;
+import com.illoy.roombooking.dto.response.RoomResponse;
 import com.illoy.roombooking.exception.*;
 import com.illoy.roombooking.mapper.*;
 import com.illoy.roombooking.security.AuthenticationService;
+import com.illoy.roombooking.service.analytics.AnalyticsResultCache;
+import com.illoy.roombooking.service.analytics.AnalyticsResultCache.Kind;
+import com.illoy.roombooking.service.catalog.RoomCatalog;
+import com.illoy.roombooking.service.outbox.OutboxWriter;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.observation.annotation.Observed;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -17,7 +28,6 @@ import java.util.*;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -27,39 +37,65 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed("service.calls")
 public class BookingService {
     private final BookingRepository bookingRepository;
-    private final RoomRepository roomRepository;
     private final UserRepository userRepository;
+    private final RoomRepository roomRepository;
 
     private final AuthenticationService authenticationService;
+    private final AnalyticsResultCache analyticsResultCache;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final RoomCatalog roomCatalog;
+    private final InvalidationBus invalidationBus;
+    private final OutboxWriter outboxWriter;
+    private final RoomBookingLock roomBookingLock;
+    private final BookingOutcomeMetrics bookingOutcomeMetrics;
 
     private final UserMapper userMapper;
     private final RoomMapper roomMapper;
     private final BookingMapper bookingMapper;
 
+    @Observed(name = "booking.create", contextualName = "booking-create")
     @Transactional
     public BookingResponse create(BookingCreateRequest request) {
-        Room room = roomRepository
-                .findByIdAndIsActiveTrue(request.getRoomId())
+        RoomResponse room = roomCatalog
+                .findActive(request.getRoomId())
                 .orElseThrow(
                         () -> new RoomNotFoundException("Room not found or inactive with id: " + request.getRoomId()));
 
         User currentUser = authenticationService.getCurrentUser();
 
+        // некорректное время отсекается до блокировки комнаты и запроса конфликтов
+        try {
+            validateBookingTime(request.getStartTime(), request.getEndTime());
+        } catch (BookingTimeException e) {
+            bookingOutcomeMetrics.timeInvalid();
+            throw e;
+        }
+
+        roomBookingLock.lock(room.getId());
         if (!isRoomAvailable(room.getId(), request.getStartTime(), request.getEndTime())) {
+            bookingOutcomeMetrics.conflict();
             throw new RoomNotAvailableException("Room is not available for selected time");
         }
 
-        validateBookingTime(request.getStartTime(), request.getEndTime());
-
         Booking booking = bookingMapper.toEntity(request);
-        booking.setRoom(room);
+        // прокси без запроса: комната уже проверена по каталогу, а имя и вместимость для ответа есть в нём
+        booking.setRoom(roomRepository.getReferenceById(room.getId()));
         booking.setUser(currentUser);
         booking.setStatus(BookingStatus.CONFIRMED);
 
         Booking savedBooking = bookingRepository.save(booking);
-        return bookingMapper.toResponse(savedBooking);
+        analyticsResultCache.evictDay(savedBooking.getStartTime().toLocalDate());
+        invalidationBus.publish(InvalidationEvent.booking(
+                savedBooking.getId(), savedBooking.getStartTime().toLocalDate()));
+        readYourWritesTracker.recordWrite(currentUser.getUsername());
+
+        BookingResponse response = bookingMapper.toResponse(savedBooking, room);
+        outboxWriter.append(OutboxEventType.BOOKING_CREATED, response);
+        bookingOutcomeMetrics.created();
+        return response;
     }
 
     @Transactional
@@ -85,7 +121,15 @@ public class BookingService {
 
         booking.setStatus(BookingStatus.CANCELLED);
         Booking updatedBooking = bookingRepository.saveAndFlush(booking);
-        return bookingMapper.toResponse(updatedBooking);
+        analyticsResultCache.evictDay(updatedBooking.getStartTime().toLocalDate());
+        invalidationBus.publish(InvalidationEvent.booking(
+                updatedBooking.getId(), updatedBooking.getStartTime().toLocalDate()));
+        readYourWritesTracker.recordWrite(booking.getUser().getUsername());
+
+        BookingResponse response = bookingMapper.toResponse(updatedBooking);
+        outboxWriter.append(OutboxEventType.BOOKING_CANCELLED, response);
+        bookingOutcomeMetrics.cancelled();
+        return response;
     }
 
     private boolean isRoomAvailable(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
@@ -93,6 +137,11 @@ public class BookingService {
         return conflicts.isEmpty();
     }
 
+    // статусы, которые занимают слот (см. BookingRepository.findConflictingBookings)
+    private static boolean isActive(BookingStatus status) {
+        return status == BookingStatus.CONFIRMED || status == BookingStatus.PENDING;
+    }
+
     private void validateBookingTime(LocalDateTime startTime, LocalDateTime endTime) {
         if (endTime.isBefore(startTime) || endTime.equals(startTime)) {
             throw new BookingTimeException("End time must be after start time");
@@ -118,8 +167,24 @@ public class BookingService {
             throw new BookingStatusConflictException("Booking already has status: " + status);
         }
 
+        // возврат в действующий статус снова занимает слот - та же блокировка и проверка, что и при создании
+        if (isActive(status) && !isActive(booking.getStatus())) {
+            roomBookingLock.lock(booking.getRoom().getId());
+            if (!isRoomAvailable(booking.getRoom().getId(), booking.getStartTime(), booking.getEndTime())) {
+                bookingOutcomeMetrics.conflict();
+                throw new RoomNotAvailableException("Room is not available for selected time");
+            }
+        }
+
         booking.setStatus(status);
-        return bookingMapper.toResponse(bookingRepository.save(booking));
+        Booking updatedBooking = bookingRepository.save(booking);
+        analyticsResultCache.evictDay(updatedBooking.getStartTime().toLocalDate());
+        invalidationBus.publish(InvalidationEvent.booking(
+                updatedBooking.getId(), updatedBooking.getStartTime().toLocalDate()));
+
+        BookingResponse response = bookingMapper.toResponse(updatedBooking);
+        outboxWriter.append(OutboxEventType.BOOKING_STATUS_CHANGED, response);
+        return response;
     }
 
     // методы поиска
@@ -144,6 +209,30 @@ public class BookingService {
         }
     }
 
+    /*
+       Пусто, если бронирования нет или оно чужое: тогда ошибку вернёт обычный findById.
+       В ответе есть название и вместимость комнаты и имя пользователя, поэтому в ETag входят
+       и версия комнаты, и хеш имени: их изменение не должно давать 304 со старым телом
+    */
+    public Optional<ResourceVersion> findVersionById(Long id) {
+        return bookingRepository
+                .findVersionById(id)
+                .filter(version -> authenticationService.isCurrentUserOrAdmin(version.getUsername()))
+                .map(version -> {
+                    LocalDateTime lastModified = version.getRoomUpdatedAt() != null
+                                    && (version.getUpdatedAt() == null
+                                            || version.getRoomUpdatedAt().isAfter(version.getUpdatedAt()))
+                            ? version.getRoomUpdatedAt()
+                            : version.getUpdatedAt();
+
+                    return ResourceVersion.of(
+                            "booking-" + id + "-" + ResourceVersion.stamp(version.getUpdatedAt())
+                                    + "-" + ResourceVersion.stamp(version.getRoomUpdatedAt())
+                                    + "-" + Integer.toString(version.getUsername().hashCode(), 36),
+                            lastModified);
+                });
+    }
+
     public Page<BookingResponse> findUserBookings(
             Pageable pageable, BookingStatus status, LocalDate fromDate, LocalDate toDate) {
 
@@ -179,14 +268,15 @@ public class BookingService {
     }
 
     public Map<String, Long> findCountByPeriodGroupByStatus(LocalDateTime start, LocalDateTime end) {
+        return analyticsResultCache.aggregate(Kind.STATUS, start, end, (from, to) -> {
+            Map<String, Long> resultMap = new HashMap<>();
 
-        Map<String, Long> resultMap = new HashMap<>();
+            List<Object[]> queryResult = bookingRepository.getCountGroupByStatus(from, to);
 
-        List<Object[]> queryResult = bookingRepository.getCountGroupByStatus(start, end);
+            queryResult.forEach(object -> resultMap.put(String.valueOf(object[0]), (Long) object[1]));
 
-        queryResult.forEach(object -> resultMap.put(String.valueOf(object[0]), (Long) object[1]));
-
-        return resultMap;
+            return resultMap;
+        });
     }
 
     public long countByStartTimeBetween(LocalDateTime start, LocalDateTime end) {
@@ -195,37 +285,63 @@ public class BookingService {
 
     public Map<String, Long> findBookingsCountByDow(LocalDateTime start, LocalDateTime end) {
 
-        Map<String, Long> dayStats = new LinkedHashMap<>();
         String[] days = {"Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
 
-        List<Object[]> results = bookingRepository.findBookingsByDayOfWeek(start, end);
+        Map<String, Long> counts = analyticsResultCache.aggregate(Kind.DAY_OF_WEEK, start, end, (from, to) -> {
+            Map<String, Long> resultMap = new HashMap<>();
+
+            List<Object[]> results = bookingRepository.findBookingsByDayOfWeek(from, to);
 
-        results.forEach(
-                object -> dayStats.put(days[((Number) object[0]).intValue()], ((Number) object[1]).longValue()));
+            results.forEach(
+                    object -> resultMap.put(days[((Number) object[0]).intValue()], ((Number) object[1]).longValue()));
+
+            return resultMap;
+        });
+
+        // порядок дней недели - с воскресенья, как в EXTRACT(DOW)
+        Map<String, Long> dayStats = new LinkedHashMap<>();
+        for (String day : days) {
+            if (counts.containsKey(day)) dayStats.put(day, counts.get(day));
+        }
 
         return dayStats;
     }
 
     public Map<String, Long> findPopularRooms(LocalDateTime start, LocalDateTime end, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Object[]> results = bookingRepository.findPopularRooms(start, end, pageable);
-
-        return results.stream()
-                .collect(Collectors.toMap(
-                        result -> (String) result[0],
-                        result -> (Long) result[1],
-                        (existing, replacement) -> existing,
-                        LinkedHashMap::new));
+        // частичные результаты нельзя обрезать до limit до сложения, поэтому лимит применяется в конце
+        Map<String, Long> counts = analyticsResultCache.aggregate(
+                Kind.ROOMS,
+                start,
+                end,
+                (from, to) -> toCountMap(bookingRepository.findPopularRooms(from, to, Pageable.unpaged())));
+
+        return sortByCountDesc(counts, limit);
     }
 
     public Map<String, Long> findUsersBookingsCount(LocalDateTime start, LocalDateTime end) {
-        List<Object[]> results = bookingRepository.findUsersBookingsCount(start, end);
+        Map<String, Long> counts = analyticsResultCache.aggregate(
+                Kind.USERS, start, end, (from, to) -> toCountMap(bookingRepository.findUsersBookingsCount(from, to)));
+
+        return sortByCountDesc(counts, counts.size());
+    }
 
+    private Map<String, Long> toCountMap(List<Object[]> results) {
         return results.stream()
                 .collect(Collectors.toMap(
-                        result -> (String) result[0], // user name
+                        result -> (String) result[0], // name
                         result -> (Long) result[1], // booking count
                         (existing, replacement) -> existing,
+                        HashMap::new));
+    }
+
+    private Map<String, Long> sortByCountDesc(Map<String, Long> counts, int limit) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        Map.Entry::getValue,
+                        (existing, replacement) -> existing,
                         LinkedHashMap::new));
     }
 
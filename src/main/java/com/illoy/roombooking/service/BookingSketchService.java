@@ -0,0 +1,164 @@
+package com.illoy.roombooking.service;
+
+import com.illoy.roombooking.database.entity.Room;
+import com.illoy.roombooking.database.entity.User;
+import com.illoy.roombooking.database.repository.BookingRepository;
+import com.illoy.roombooking.database.repository.RoomRepository;
+import com.illoy.roombooking.database.repository.UserRepository;
+import com.illoy.roombooking.dto.response.ApproximateCountResponse;
+import com.illoy.roombooking.dto.response.ApproximateTopResponse;
+import com.illoy.roombooking.service.analytics.BookingDaySketch;
+import com.illoy.roombooking.service.analytics.CountMinSketch;
+import com.illoy.roombooking.service.analytics.DayRange;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BookingSketchService {
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final RoomRepository roomRepository;
+
+    @Value("${spring.application.analytics.sketch.max-cached-days:366}")
+    private int maxCachedDays;
+
+    /*
+       Скетчи закончившихся дней неизменны (бронировать в прошлом нельзя), поэтому кешируются навсегда (LRU).
+       Пользователи и комнаты в них - по id, текущие имена подставляются в ответ
+    */
+    private final Map<LocalDate, BookingDaySketch> closedDays =
+            Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<LocalDate, BookingDaySketch> eldest) {
+                    return size() > maxCachedDays;
+                }
+            });
+
+    public ApproximateCountResponse countDistinctUsers(LocalDateTime start, LocalDateTime end) {
+        BookingDaySketch sketch = sketch(start, end);
+
+        return ApproximateCountResponse.builder()
+                .estimate(sketch.distinctUsers())
+                .relativeStandardError(sketch.distinctUsersError())
+                .build();
+    }
+
+    public ApproximateTopResponse findTopUsers(LocalDateTime start, LocalDateTime end, int limit) {
+        BookingDaySketch sketch = sketch(start, end);
+        Map<Long, Long> top = sketch.topUsers(clampLimit(limit));
+        Map<Long, String> names = userRepository.findAllById(top.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, User::getUsername));
+
+        return toTopResponse(withNames(top, names), sketch.getUserCounts());
+    }
+
+    public ApproximateTopResponse findPopularRooms(LocalDateTime start, LocalDateTime end, int limit) {
+        BookingDaySketch sketch = sketch(start, end);
+        Map<Long, Long> top = sketch.topRooms(clampLimit(limit));
+        Map<Long, String> names = roomRepository.findAllById(top.keySet()).stream()
+                .collect(Collectors.toMap(Room::getId, Room::getName));
+
+        return toTopResponse(withNames(top, names), sketch.getRoomCounts());
+    }
+
+    public void evictAll() {
+        closedDays.clear();
+    }
+
+    private BookingDaySketch sketch(LocalDateTime start, LocalDateTime end) {
+        DayRange range = DayRange.of(start, end, LocalDate.now());
+        BookingDaySketch result = new BookingDaySketch();
+
+        if (range.hasClosedDays()) {
+            loadClosedDays(range).values().forEach(result::merge);
+
+            if (range.hasHead()) {
+                try (Stream<Object[]> rows = bookingRepository.streamAnalyticsRows(range.getStart(), range.headEnd())) {
+                    rows.forEach(row -> addRow(result, row));
+                }
+            }
+        }
+
+        /*
+           Сегодняшний день и будущее ещё меняются - считаем по БД. Хвост [tailStart, end] включает end;
+           timestamp в Postgres точен до микросекунды, поэтому end + 1 мкс - исключающая граница
+           (наносекунда округлилась бы драйвером до той же end)
+        */
+        try (Stream<Object[]> rows = bookingRepository.streamAnalyticsRows(
+                range.tailStart(), range.getEnd().plus(1, ChronoUnit.MICROS))) {
+            rows.forEach(row -> addRow(result, row));
+        }
+
+        return result;
+    }
+
+    private Map<LocalDate, BookingDaySketch> loadClosedDays(DayRange range) {
+        Map<LocalDate, BookingDaySketch> days = new TreeMap<>();
+        List<LocalDate> missing = new ArrayList<>();
+
+        range.closedDays().forEach(day -> {
+            BookingDaySketch cached = closedDays.get(day);
+            if (cached != null) days.put(day, cached);
+            else missing.add(day);
+        });
+
+        if (!missing.isEmpty()) {
+            Map<LocalDate, BookingDaySketch> loaded =
+                    missing.stream().collect(Collectors.toMap(Function.identity(), day -> new BookingDaySketch()));
+
+            // один проход по всему отрезку недостающих дней, строки уже закешированных дней пропускаются
+            try (Stream<Object[]> rows = bookingRepository.streamAnalyticsRows(
+                    missing.getFirst().atStartOfDay(),
+                    missing.getLast().plusDays(1).atStartOfDay())) {
+                rows.forEach(row -> {
+                    BookingDaySketch day = loaded.get(((LocalDateTime) row[0]).toLocalDate());
+                    if (day != null) addRow(day, row);
+                });
+            }
+
+            closedDays.putAll(loaded);
+            days.putAll(loaded);
+        }
+
+        return days;
+    }
+
+    private void addRow(BookingDaySketch sketch, Object[] row) {
+        sketch.add((Long) row[1], (Long) row[2]);
+    }
+
+    // порядок по убыванию сохраняется; удалённые из БД пропускаются
+    private static Map<String, Long> withNames(Map<Long, Long> counts, Map<Long, String> names) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.forEach((id, count) -> {
+            String name = names.get(id);
+            if (name != null) result.put(name, count);
+        });
+        return result;
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, BookingDaySketch.MAX_TOP));
+    }
+
+    private ApproximateTopResponse toTopResponse(Map<String, Long> counts, CountMinSketch sketch) {
+        return ApproximateTopResponse.builder()
+                .counts(counts)
+                .totalBookings(sketch.getTotal())
+                .maxOverestimate(sketch.maxOverestimate())
+                .confidence(sketch.confidence())
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.illoy.roombooking.service;
+
+import com.illoy.roombooking.dto.response.DashboardResponse;
+import com.illoy.roombooking.dto.response.DashboardSection;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    private final UserService userService;
+    private final RoomService roomService;
+    private final BookingService bookingService;
+
+    private final ExecutorService dashboardExecutor;
+
+    @Value("${spring.application.analytics.dashboard.timeout-ms:2000}")
+    private long timeoutMs;
+
+    /*
+       Все секции дашборда выполняются параллельно, каждая в своём виртуальном потоке и в своей
+       read-only транзакции (транзакция открывается прокси сервиса в потоке задачи).
+       Секции, не уложившиеся в общий дедлайн, отменяются и возвращаются со статусом TIMEOUT
+    */
+    public DashboardResponse collect(LocalDateTime start, LocalDateTime end, int limit) {
+        Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+        sections.put("activeUsersCount", userService::countActiveUsers);
+        sections.put("activeRoomsCount", roomService::countActiveRooms);
+        sections.put("bookingsCount", () -> bookingService.countByStartTimeBetween(start, end));
+        sections.put("bookingsCountByStatus", () -> bookingService.findCountByPeriodGroupByStatus(start, end));
+        sections.put("popularRooms", () -> bookingService.findPopularRooms(start, end, limit));
+        sections.put("usersBookingsCount", () -> bookingService.findUsersBookingsCount(start, end));
+        sections.put("bookingsCountByDow", () -> bookingService.findBookingsCountByDow(start, end));
+
+        List<Callable<DashboardSection>> tasks =
+                sections.values().stream().map(this::timed).toList();
+
+        long startedAt = System.nanoTime();
+        List<Future<DashboardSection>> futures;
+        try {
+            futures = dashboardExecutor.invokeAll(tasks, timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dashboard collection interrupted", e);
+        }
+        long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        Map<String, DashboardSection> result = new LinkedHashMap<>();
+        Iterator<String> names = sections.keySet().iterator();
+        for (Future<DashboardSection> future : futures) {
+            result.put(names.next(), resolve(future, totalMs));
+        }
+
+        return DashboardResponse.builder().sections(result).totalMs(totalMs).build();
+    }
+
+    private Callable<DashboardSection> timed(Supplier<Object> section) {
+        return () -> {
+            long startedAt = System.nanoTime();
+            try {
+                Object data = section.get();
+                return DashboardSection.builder()
+                        .status(DashboardSection.Status.OK)
+                        .data(data)
+                        .durationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+                        .build();
+            } catch (RuntimeException e) {
+                log.warn("Dashboard section failed: {}", e.getMessage());
+                return DashboardSection.builder()
+                        .status(DashboardSection.Status.FAILED)
+                        .durationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+                        .error(e.getMessage())
+                        .build();
+            }
+        };
+    }
+
+    private DashboardSection resolve(Future<DashboardSection> future, long totalMs) {
+        if (future.isCancelled()) {
+            return DashboardSection.builder()
+                    .status(DashboardSection.Status.TIMEOUT)
+                    .durationMs(totalMs)
+                    .error("Section did not complete within " + timeoutMs + " ms")
+                    .build();
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return DashboardSection.builder()
+                    .status(DashboardSection.Status.FAILED)
+                    .durationMs(totalMs)
+                    .error(e.getMessage())
+                    .build();
+        }
+    }
+}
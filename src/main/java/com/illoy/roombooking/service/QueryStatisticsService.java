@@ -0,0 +1,61 @@
+package com.illoy.roombooking.service;
+
+import com.illoy.roombooking.database.query.QueryStatistics;
+import com.illoy.roombooking.database.query.SlowQueryLog;
+import com.illoy.roombooking.dto.response.QueryStatisticsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class QueryStatisticsService {
+
+    private final QueryStatistics queryStatistics;
+    private final SlowQueryLog slowQueryLog;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public QueryStatisticsResponse snapshot(int limit) {
+        Statistics statistics = hibernateStatistics();
+
+        return QueryStatisticsResponse.builder()
+                .shapes(queryStatistics.top(limit))
+                .slowQueries(slowQueryLog.recent())
+                .hibernate(statistics.isStatisticsEnabled() ? counters(statistics) : Map.of())
+                .hibernateSlowestQuery(
+                        statistics.isStatisticsEnabled() ? statistics.getQueryExecutionMaxTimeQueryString() : null)
+                .build();
+    }
+
+    public void reset() {
+        queryStatistics.reset();
+        slowQueryLog.clear();
+        hibernateStatistics().clear();
+    }
+
+    private Statistics hibernateStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Map<String, Long> counters(Statistics statistics) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        counters.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        counters.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        counters.put("entityLoadCount", statistics.getEntityLoadCount());
+        counters.put("entityFetchCount", statistics.getEntityFetchCount());
+        counters.put("collectionLoadCount", statistics.getCollectionLoadCount());
+        counters.put("collectionFetchCount", statistics.getCollectionFetchCount());
+        counters.put("entityInsertCount", statistics.getEntityInsertCount());
+        counters.put("entityUpdateCount", statistics.getEntityUpdateCount());
+        counters.put("flushCount", statistics.getFlushCount());
+        counters.put("transactionCount", statistics.getTransactionCount());
+        counters.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        counters.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+        return counters;
+    }
+}
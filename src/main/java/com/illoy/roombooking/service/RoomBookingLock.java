@@ -0,0 +1,28 @@
+package com.illoy.roombooking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/*
+   Проверка пересечений и вставка брони - два отдельных запроса: без блокировки две транзакции
+   видят свободный слот и обе вставляют пересекающиеся брони. Advisory-блокировка комнаты
+   до конца транзакции выстраивает создания в одной комнате в очередь, разные комнаты не мешают
+   друг другу. Следующая транзакция получает блокировку после коммита предыдущей и её бронь видит
+*/
+@Component
+@RequiredArgsConstructor
+class RoomBookingLock {
+
+    // первый ключ двухключевой advisory-блокировки, второй - id комнаты; отличается от ключа OutboxWriter
+    private static final int ROOM_LOCK_CLASS = 0x626f6f6b;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(Long roomId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> null, ROOM_LOCK_CLASS, roomId.intValue());
+    }
+}
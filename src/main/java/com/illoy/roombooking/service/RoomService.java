@@ -6,20 +6,25 @@ import com.illoy.roombooking.database.entity.Room;
 import com.illoy.roombooking.database.repository.BookingRepository;
 import com.illoy.roombooking.database.repository.RoomRepository;
 import com.illoy.roombooking.dto.request.RoomCreateEditRequest;
+import com.illoy.roombooking.dto.response.ResourceVersion;
 import com.illoy.roombooking.dto.response.RoomAvailabilityResponse;
 import com.illoy.roombooking.dto.response.RoomResponse;
 import com.illoy.roombooking.dto.response.TimeSlot;
 import com.illoy.roombooking.exception.*;
 import com.illoy.roombooking.mapper.RoomMapper;
+import com.illoy.roombooking.service.catalog.RoomCatalog;
+import io.micrometer.core.annotation.Timed;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,19 +32,37 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed("service.calls")
 public class RoomService {
     private final RoomRepository roomRepository;
     private final BookingRepository bookingRepository;
     private final RoomMapper roomMapper;
+    private final RoomCatalog roomCatalog;
 
     public List<RoomResponse> findAllActive() {
-        return roomRepository.findByIsActiveTrue().stream()
-                .map(roomMapper::toResponse)
-                .collect(Collectors.toList());
+        return roomCatalog.findAllActive();
+    }
+
+    public byte[] findAllActiveJson() {
+        return roomCatalog.findAllActiveJson();
     }
 
     public Page<RoomResponse> findAllActive(Pageable pageable) {
-        return roomRepository.findByIsActiveTrue(pageable).map(roomMapper::toResponse);
+        Comparator<RoomResponse> comparator = RoomCatalog.comparator(pageable.getSort());
+        if (comparator == null) {
+            // сортировка по полю, которое каталог не знает, - пусть разбирается БД
+            return roomRepository.findByIsActiveTrue(pageable).map(roomMapper::toResponse);
+        }
+
+        List<RoomResponse> rooms =
+                roomCatalog.findAllActive().stream().sorted(comparator).toList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(rooms, pageable, rooms.size());
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), rooms.size());
+        int to = Math.min(from + pageable.getPageSize(), rooms.size());
+        return new PageImpl<>(rooms.subList(from, to), pageable, rooms.size());
     }
 
     public List<RoomResponse> findAll() {
@@ -47,9 +70,8 @@ public class RoomService {
     }
 
     public RoomResponse findActiveRoomById(Long id) {
-        return roomRepository
-                .findByIdAndIsActiveTrue(id)
-                .map(roomMapper::toResponse)
+        return roomCatalog
+                .findActive(id)
                 .orElseThrow(() -> new RoomNotFoundException("Room not found or inactive with id: " + id));
     }
 
@@ -61,24 +83,74 @@ public class RoomService {
     }
 
     public List<RoomResponse> findActiveByCapacity(Integer minCapacity) {
-        return roomRepository.findActiveRoomsByCapacity(minCapacity).stream()
-                .map(roomMapper::toResponse)
-                .collect(Collectors.toList());
+        return findAvailable(minCapacity, null, null, null);
+    }
+
+    /*
+       Активные комнаты по диапазону вместимости (из каталога, без БД), по возрастанию вместимости.
+       Если задан интервал, занятые в нём комнаты отсекаются одним запросом по бронированиям
+    */
+    public List<RoomResponse> findAvailable(
+            Integer minCapacity, Integer maxCapacity, LocalDateTime startTime, LocalDateTime endTime) {
+
+        List<RoomResponse> rooms = roomCatalog.findByCapacity(
+                minCapacity == null ? 1 : minCapacity, maxCapacity == null ? Integer.MAX_VALUE : maxCapacity);
+
+        if (startTime == null && endTime == null) {
+            return rooms;
+        }
+
+        if (startTime == null || endTime == null) {
+            throw new BookingTimeException("Both startTime and endTime are required to filter by availability");
+        }
+
+        if (!endTime.isAfter(startTime)) {
+            throw new BookingTimeException("End time must be after start time");
+        }
+
+        return withoutBusy(rooms, bookingRepository.findBusyRoomIds(startTime, endTime));
+    }
+
+    // чистые вычисления доступности вынесены отдельно, чтобы их можно было мерить без БД (src/jmh)
+    static List<RoomResponse> withoutBusy(List<RoomResponse> rooms, Set<Long> busy) {
+        return rooms.stream().filter(room -> !busy.contains(room.getId())).toList();
     }
 
     public long countActiveRooms() {
-        return roomRepository.countActiveRooms();
+        return roomCatalog.countActive();
     }
 
     public List<RoomResponse> searchActiveByName(String searchTerm) {
-        return roomRepository.searchActiveRoomsByName(searchTerm).stream()
-                .map(roomMapper::toResponse)
-                .collect(Collectors.toList());
+        return roomCatalog.searchByName(searchTerm);
+    }
+
+    // версии для условных GET: активные комнаты - из каталога, все комнаты - лёгким запросом
+    public ResourceVersion activeRoomsVersion() {
+        return roomCatalog.version();
+    }
+
+    public Optional<ResourceVersion> activeRoomVersion(Long id) {
+        return roomCatalog.findActive(id).map(room -> roomVersion(id, room.getUpdatedAt()));
+    }
+
+    public ResourceVersion allRoomsVersion() {
+        RoomRepository.Version version = roomRepository.findVersion();
+        return ResourceVersion.of(
+                "rooms-all-" + version.getCount() + "-" + ResourceVersion.stamp(version.getUpdatedAt()),
+                version.getUpdatedAt());
+    }
+
+    public Optional<ResourceVersion> roomVersion(Long id) {
+        return roomRepository.findUpdatedAtById(id).map(updatedAt -> roomVersion(id, updatedAt));
+    }
+
+    private ResourceVersion roomVersion(Long id, LocalDateTime updatedAt) {
+        return ResourceVersion.of("room-" + id + "-" + ResourceVersion.stamp(updatedAt), updatedAt);
     }
 
     public RoomAvailabilityResponse checkAvailability(Long id, LocalDateTime startTime, LocalDateTime endTime) {
-        roomRepository
-                .findByIdAndIsActiveTrue(id)
+        roomCatalog
+                .findActive(id)
                 .orElseThrow(() -> new RoomNotFoundException("Room not found or inactive with id: " + id));
 
         // Проверяем доступность на конкретный интервал
@@ -111,7 +183,7 @@ public class RoomService {
                 roomId, startOfDay, endOfDay, List.of(BookingStatus.CONFIRMED, BookingStatus.PENDING));
     }
 
-    private List<TimeSlot> mapToTimeSlots(List<Booking> bookings) {
+    static List<TimeSlot> mapToTimeSlots(List<Booking> bookings) {
         return bookings.stream()
                 .map(booking -> new TimeSlot(
                         booking.getStartTime().toLocalTime(),
@@ -134,6 +206,10 @@ public class RoomService {
                     return room;
                 })
                 .map(roomRepository::save)
+                .map(room -> {
+                    roomCatalog.roomChanged(room.getId());
+                    return room;
+                })
                 .map(roomMapper::toResponse)
                 .orElseThrow(() -> new RoomCreationException("Failed to create room"));
     }
@@ -151,6 +227,7 @@ public class RoomService {
         }
 
         roomMapper.updateEntity(request, room);
+        roomCatalog.roomChanged(id);
 
         return roomMapper.toResponse(roomRepository.saveAndFlush(room));
     }
@@ -172,6 +249,9 @@ public class RoomService {
                 throw new RoomHasActiveBookingsException(
                         "Cannot delete room with active bookings. Cancel bookings first.");
         } else roomRepository.updateRoomStatus(roomId, true);
+
+        // массовый UPDATE не вызывает entity listener
+        roomCatalog.roomChanged(roomId);
     }
 
     private boolean hasActiveBookings(Long roomId) {
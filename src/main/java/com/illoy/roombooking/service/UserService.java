@@ -2,6 +2,8 @@ package com.illoy.roombooking.service;
 
 import com.illoy.roombooking.database.entity.User;
 import com.illoy.roombooking.database.entity.UserRole;
+import com.illoy.roombooking.database.notify.InvalidationBus;
+import com.illoy.roombooking.database.notify.InvalidationEvent;
 import com.illoy.roombooking.database.repository.UserRepository;
 import com.illoy.roombooking.dto.request.RegisterRequest;
 import com.illoy.roombooking.dto.request.UserEditRequest;
@@ -11,6 +13,7 @@ import com.illoy.roombooking.exception.UserCreationException;
 import com.illoy.roombooking.exception.UsernameAlreadyExistsException;
 import com.illoy.roombooking.exception.UsernameStatusConflictException;
 import com.illoy.roombooking.mapper.UserMapper;
+import io.micrometer.core.annotation.Timed;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -25,11 +28,13 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed("service.calls")
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final InvalidationBus invalidationBus;
 
     public Optional<UserResponse> findByUsername(String username) {
         return userRepository.findByUsername(username).map(userMapper::toResponse);
@@ -76,6 +81,10 @@ public class UserService {
                     return user;
                 })
                 .map(userRepository::save)
+                .map(user -> {
+                    invalidationBus.publish(InvalidationEvent.user(user.getId()));
+                    return user;
+                })
                 .map(userMapper::toResponse)
                 .orElseThrow(() -> new UserCreationException("Failed to create user"));
     }
@@ -100,6 +109,7 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        invalidationBus.publish(InvalidationEvent.user(id));
         return Optional.ofNullable(userMapper.toResponse(updatedUser));
     }
 
@@ -111,6 +121,7 @@ public class UserService {
 
         if (user.isActive() != active) {
             userRepository.updateUserStatus(userId, active);
+            invalidationBus.publish(InvalidationEvent.user(userId));
             return true;
         } else {
             throw new UsernameStatusConflictException("Username already has this status");
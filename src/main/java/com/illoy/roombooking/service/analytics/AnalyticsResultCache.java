@@ -0,0 +1,182 @@
+package com.illoy.roombooking.service.analytics;
+
+import com.illoy.roombooking.database.notify.InvalidationBus;
+import com.illoy.roombooking.database.notify.InvalidationEvent;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+   Кеш результатов аналитических запросов.
+   Период [start, end] разбивается по границам дней (см. DayRange). Закончившиеся дни покрываются
+   фиксированными корзинами - целыми календарными месяцами, затем неделями (с понедельника), затем
+   отдельными днями, - и агрегат каждой корзины кешируется по ключу (вид запроса, начало, конец).
+   Границы корзин не зависят от запрошенного периода, так что наступивший день добавляет одну
+   запись, а не делает бесполезными все прежние. Неполный первый день и хвост начиная с сегодняшнего
+   дня каждый раз считаются в БД и складываются с кешем
+*/
+@Component
+public class AnalyticsResultCache {
+
+    public enum Kind {
+        STATUS,
+        DAY_OF_WEEK,
+        ROOMS,
+        USERS
+    }
+
+    // точность timestamp в PostgreSQL - микросекунды, так [from, to) превращается в BETWEEN
+    private static final long TIMESTAMP_RESOLUTION_NANOS = 1_000;
+
+    @Value("${spring.application.analytics.cache.max-entries:1024}")
+    private int maxEntries;
+
+    private final Map<Key, Map<String, Long>> entries =
+            Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Map<String, Long>> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+
+    // увеличивается при каждой инвалидации, чтобы не положить в кеш результат, прочитанный до неё
+    private final AtomicLong generation = new AtomicLong();
+
+    public AnalyticsResultCache(InvalidationBus invalidationBus) {
+        // изменения бронирований на других узлах; в отчётах есть названия комнат и имена пользователей
+        invalidationBus.subscribe(InvalidationEvent.Entity.BOOKING, event -> evictDay(event.getDay()));
+        invalidationBus.subscribe(InvalidationEvent.Entity.ROOM, event -> evictAll());
+        invalidationBus.subscribe(InvalidationEvent.Entity.USER, event -> evictAll());
+        invalidationBus.onResync(this::evictAll);
+    }
+
+    public Map<String, Long> aggregate(
+            Kind kind,
+            LocalDateTime start,
+            LocalDateTime end,
+            BiFunction<LocalDateTime, LocalDateTime, Map<String, Long>> query) {
+
+        DayRange range = DayRange.of(start, end, LocalDate.now());
+
+        if (!range.hasClosedDays()) {
+            return query.apply(start, end);
+        }
+
+        Map<String, Long> result = new HashMap<>(closed(kind, range, query));
+
+        if (range.hasHead()) {
+            mergeInto(result, query.apply(start, beforeMidnight(range.getClosedFrom())));
+        }
+        mergeInto(result, query.apply(range.tailStart(), end));
+
+        return result;
+    }
+
+    public void evictDay(LocalDate day) {
+        if (!day.isBefore(LocalDate.now())) {
+            // сегодняшний и будущие дни никогда не кешируются
+            return;
+        }
+
+        evict(day);
+
+        // повторно после коммита: параллельный запрос мог успеть закешировать старые данные
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(day);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private Map<String, Long> closed(
+            Kind kind, DayRange range, BiFunction<LocalDateTime, LocalDateTime, Map<String, Long>> query) {
+
+        Map<String, Long> result = new HashMap<>();
+
+        LocalDate from = range.getClosedFrom();
+        while (from.isBefore(range.getClosedTo())) {
+            LocalDate to = bucketEnd(from, range.getClosedTo());
+            mergeInto(result, bucket(new Key(kind, from, to), query));
+            from = to;
+        }
+
+        return result;
+    }
+
+    private Map<String, Long> bucket(Key key, BiFunction<LocalDateTime, LocalDateTime, Map<String, Long>> query) {
+        Map<String, Long> cached = entries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadedAt = generation.get();
+        Map<String, Long> loaded = Map.copyOf(query.apply(key.from.atStartOfDay(), beforeMidnight(key.to)));
+
+        synchronized (entries) {
+            if (generation.get() == loadedAt) {
+                entries.put(key, loaded);
+            }
+        }
+
+        return loaded;
+    }
+
+    // самая крупная корзина, которая начинается в day и целиком лежит до closedTo
+    private static LocalDate bucketEnd(LocalDate day, LocalDate closedTo) {
+        LocalDate nextMonth = day.withDayOfMonth(1).plusMonths(1);
+        if (day.getDayOfMonth() == 1 && !nextMonth.isAfter(closedTo)) {
+            return nextMonth;
+        }
+
+        LocalDate nextWeek = day.plusWeeks(1);
+        if (day.getDayOfWeek() == DayOfWeek.MONDAY && !nextWeek.isAfter(closedTo)) {
+            return nextWeek;
+        }
+
+        return day.plusDays(1);
+    }
+
+    private void evict(LocalDate day) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.keySet().removeIf(key -> key.contains(day));
+        }
+    }
+
+    private static LocalDateTime beforeMidnight(LocalDate day) {
+        return day.atStartOfDay().minusNanos(TIMESTAMP_RESOLUTION_NANOS);
+    }
+
+    private static void mergeInto(Map<String, Long> target, Map<String, Long> source) {
+        source.forEach((name, count) -> target.merge(name, count, Long::sum));
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final Kind kind;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        boolean contains(LocalDate day) {
+            return !day.isBefore(from) && day.isBefore(to);
+        }
+    }
+}
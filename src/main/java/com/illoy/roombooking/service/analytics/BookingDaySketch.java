@@ -0,0 +1,99 @@
+package com.illoy.roombooking.service.analytics;
+
+import java.util.*;
+
+/*
+   Скетч бронирований за день (или за объединение дней):
+   - HyperLogLog по id пользователей - число уникальных бронирующих
+   - Count-Min + ограниченный набор кандидатов - топ пользователей и комнат
+   Всё хранится по id: после переименования пользователя или комнаты закешированные скетчи остаются верными.
+   Размер фиксирован: ~4 КБ на HLL и ~16 КБ на каждый Count-Min
+*/
+public class BookingDaySketch {
+
+    public static final int MAX_TOP = 64;
+
+    private static final int HLL_PRECISION = 12;
+    private static final int CMS_DEPTH = 4;
+    private static final int CMS_WIDTH = 1024;
+
+    private final HyperLogLog users = new HyperLogLog(HLL_PRECISION);
+    private final CountMinSketch userCounts = new CountMinSketch(CMS_DEPTH, CMS_WIDTH);
+    private final CountMinSketch roomCounts = new CountMinSketch(CMS_DEPTH, CMS_WIDTH);
+    private final Map<Long, Long> userCandidates = new HashMap<>();
+    private final Map<Long, Long> roomCandidates = new HashMap<>();
+
+    public void add(Long userId, Long roomId) {
+        users.add(Hash64.of(userId));
+        offer(userCounts, userCandidates, userId);
+        offer(roomCounts, roomCandidates, roomId);
+    }
+
+    public void merge(BookingDaySketch other) {
+        users.merge(other.users);
+        userCounts.merge(other.userCounts);
+        roomCounts.merge(other.roomCounts);
+        // кандидаты объединяются без ограничения, частоты переоцениваются по общему Count-Min
+        other.userCandidates.keySet().forEach(key -> userCandidates.putIfAbsent(key, 0L));
+        other.roomCandidates.keySet().forEach(key -> roomCandidates.putIfAbsent(key, 0L));
+    }
+
+    public long distinctUsers() {
+        return users.estimate();
+    }
+
+    public double distinctUsersError() {
+        return users.relativeStandardError();
+    }
+
+    // id пользователя -> оценка числа бронирований, по убыванию
+    public Map<Long, Long> topUsers(int limit) {
+        return top(userCounts, userCandidates, limit);
+    }
+
+    public Map<Long, Long> topRooms(int limit) {
+        return top(roomCounts, roomCandidates, limit);
+    }
+
+    public CountMinSketch getUserCounts() {
+        return userCounts;
+    }
+
+    public CountMinSketch getRoomCounts() {
+        return roomCounts;
+    }
+
+    private static void offer(CountMinSketch counts, Map<Long, Long> candidates, Long key) {
+        long hash = Hash64.of(key);
+        counts.add(hash, 1);
+        long estimate = counts.estimate(hash);
+
+        if (candidates.containsKey(key) || candidates.size() < MAX_TOP) {
+            candidates.put(key, estimate);
+            return;
+        }
+
+        // вытесняем самого редкого кандидата, если новый элемент встречается чаще
+        Map.Entry<Long, Long> min = Collections.min(candidates.entrySet(), Map.Entry.comparingByValue());
+        if (estimate > min.getValue()) {
+            candidates.remove(min.getKey());
+            candidates.put(key, estimate);
+        }
+    }
+
+    private static Map<Long, Long> top(CountMinSketch counts, Map<Long, Long> candidates, int limit) {
+        PriorityQueue<Map.Entry<Long, Long>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+
+        for (Long key : candidates.keySet()) {
+            heap.offer(Map.entry(key, counts.estimate(Hash64.of(key))));
+            if (heap.size() > limit) heap.poll();
+        }
+
+        List<Map.Entry<Long, Long>> result = new ArrayList<>(heap);
+        result.sort(Map.Entry.<Long, Long>comparingByValue().reversed());
+
+        Map<Long, Long> top = new LinkedHashMap<>();
+        result.forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+}
@@ -0,0 +1,68 @@
+package com.illoy.roombooking.service.analytics;
+
+/*
+   Count-Min Sketch для частот элементов.
+   Оценка никогда не занижена и завышена не более чем на (e / width) * total
+   с вероятностью 1 - e^(-depth)
+*/
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int[] counters;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("CountMinSketch width must be a power of two and depth positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new int[depth * width];
+    }
+
+    public void add(long hash, int count) {
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + index(hash, row)] += count;
+        }
+        total += count;
+    }
+
+    public long estimate(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + index(hash, row)]);
+        }
+        return min;
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Cannot merge CountMinSketch with different dimensions");
+        }
+
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long maxOverestimate() {
+        return (long) Math.ceil(Math.E / width * total);
+    }
+
+    public double confidence() {
+        return 1 - Math.exp(-depth);
+    }
+
+    private int index(long hash, int row) {
+        // двойное хеширование Кирша-Митценмахера
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return (h1 + row * h2) & (width - 1);
+    }
+}
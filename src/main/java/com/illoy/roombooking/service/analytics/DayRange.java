@@ -0,0 +1,61 @@
+package com.illoy.roombooking.service.analytics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/*
+   Разбиение периода [start, end] на части:
+   - head: [start, closedFrom) - неполный первый день
+   - closed: полные дни [closedFrom, closedTo), которые уже закончились и больше не меняются
+   - tail: [closedTo, end] - всё, что начинается с сегодняшнего дня (или неполный последний день)
+   Если закрытых дней нет, весь период считается tail
+*/
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class DayRange {
+
+    LocalDateTime start;
+    LocalDateTime end;
+    LocalDate closedFrom;
+    LocalDate closedTo;
+
+    public static DayRange of(LocalDateTime start, LocalDateTime end, LocalDate today) {
+        LocalDate firstFullDay = start.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? start.toLocalDate()
+                : start.toLocalDate().plusDays(1);
+
+        // день d полный, если d + 1 <= end.toLocalDate(); закрытый, если ещё и d < today
+        LocalDate closedEnd = end.toLocalDate().isBefore(today) ? end.toLocalDate() : today;
+
+        if (!start.isAfter(end) && firstFullDay.isBefore(closedEnd)) {
+            return new DayRange(start, end, firstFullDay, closedEnd);
+        }
+
+        return new DayRange(start, end, null, null);
+    }
+
+    public boolean hasClosedDays() {
+        return closedFrom != null;
+    }
+
+    public Stream<LocalDate> closedDays() {
+        return hasClosedDays() ? closedFrom.datesUntil(closedTo) : Stream.empty();
+    }
+
+    public boolean hasHead() {
+        return hasClosedDays() && start.isBefore(closedFrom.atStartOfDay());
+    }
+
+    public LocalDateTime headEnd() {
+        return closedFrom.atStartOfDay();
+    }
+
+    public LocalDateTime tailStart() {
+        return hasClosedDays() ? closedTo.atStartOfDay() : start;
+    }
+}
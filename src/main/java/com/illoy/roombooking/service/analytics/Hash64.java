@@ -0,0 +1,17 @@
+package com.illoy.roombooking.service.analytics;
+
+final class Hash64 {
+
+    private Hash64() {}
+
+    static long of(long value) {
+        // финализатор MurmurHash3 - хорошее перемешивание битов для последовательных id
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,180 @@
+package com.illoy.roombooking.service.availability;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.database.entity.BookingStatus;
+import com.illoy.roombooking.database.notify.InvalidationBus;
+import com.illoy.roombooking.database.notify.InvalidationEvent;
+import com.illoy.roombooking.database.repository.BookingRepository;
+import com.illoy.roombooking.dto.response.AvailabilityDelta;
+import com.illoy.roombooking.dto.response.TimeSlot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/*
+   Подписчики SSE на изменения занятости комнат: по комнатам и на все комнаты сразу.
+
+   Изменения бронирований приходят через InvalidationBus - свои после коммита и с других
+   узлов, - так что поток одинаков на любом узле. Простаивающее соединение не занимает
+   поток: Tomcat держит его в async-режиме, кадры отправляются на виртуальных потоках
+   только когда есть что отправить
+*/
+@Slf4j
+@Component
+public class AvailabilityStreamRegistry {
+
+    private final BookingRepository bookingRepository;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService availabilityStreamExecutor;
+
+    // не read-only: реплика может ещё не видеть только что закоммиченное бронирование
+    private final TransactionTemplate primaryTransaction;
+
+    @Value("${spring.application.availability-stream.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${spring.application.availability-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, Set<AvailabilitySubscriber>> byRoom = new ConcurrentHashMap<>();
+    private final Set<AvailabilitySubscriber> allRooms = ConcurrentHashMap.newKeySet();
+
+    public AvailabilityStreamRegistry(
+            BookingRepository bookingRepository,
+            ObjectMapper objectMapper,
+            ExecutorService availabilityStreamExecutor,
+            PlatformTransactionManager transactionManager,
+            InvalidationBus invalidationBus,
+            MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.objectMapper = objectMapper;
+        this.availabilityStreamExecutor = availabilityStreamExecutor;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+
+        invalidationBus.subscribe(InvalidationEvent.Entity.BOOKING, event -> bookingChanged(event.getId()));
+        invalidationBus.onResync(() -> broadcast(AvailabilitySubscriber.Frame.RESYNC));
+
+        Gauge.builder("availability.stream.subscribers", this, AvailabilityStreamRegistry::subscriberCount)
+                .description("Open availability SSE connections")
+                .register(meterRegistry);
+    }
+
+    // roomId == null - изменения во всех комнатах
+    public SseEmitter subscribe(Long roomId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AvailabilitySubscriber subscriber = new AvailabilitySubscriber(emitter, bufferSize, availabilityStreamExecutor);
+
+        if (roomId == null) {
+            allRooms.add(subscriber);
+        } else {
+            byRoom.compute(roomId, (id, subscribers) -> {
+                Set<AvailabilitySubscriber> result = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+                result.add(subscriber);
+                return result;
+            });
+        }
+
+        Runnable unsubscribe = () -> unsubscribe(roomId, subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        return emitter;
+    }
+
+    /*
+       При остановке контекста соединения закрываются сервером: клиент получает нормальное
+       завершение потока и переподключается к другому узлу, а не ждёт обрыва по таймауту.
+       Колбэки эмиттеров при остановке могут уже не сработать, поэтому реестр чистится сразу
+    */
+    @PreDestroy
+    void completeAll() {
+        allRooms.forEach(AvailabilitySubscriber::complete);
+        allRooms.clear();
+        byRoom.values().forEach(subscribers -> subscribers.forEach(AvailabilitySubscriber::complete));
+        byRoom.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${spring.application.availability-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        allRooms.forEach(AvailabilitySubscriber::heartbeat);
+        byRoom.values().forEach(subscribers -> subscribers.forEach(AvailabilitySubscriber::heartbeat));
+    }
+
+    private int subscriberCount() {
+        return allRooms.size() + byRoom.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void bookingChanged(Long bookingId) {
+        if (allRooms.isEmpty() && byRoom.isEmpty()) {
+            return;
+        }
+
+        // вызывается из afterCommit или потока слушателя NOTIFY - запрос в БД уводим с него
+        availabilityStreamExecutor.execute(() -> {
+            try {
+                primaryTransaction
+                        .execute(status -> bookingRepository.findSlotById(bookingId))
+                        .ifPresent(slot -> publish(bookingId, slot));
+            } catch (RuntimeException e) {
+                log.warn("Cannot build availability delta for booking {}", bookingId, e);
+            }
+        });
+    }
+
+    private void publish(Long bookingId, BookingRepository.Slot slot) {
+        AvailabilityDelta delta = AvailabilityDelta.builder()
+                .roomId(slot.getRoomId())
+                .bookingId(bookingId)
+                .date(slot.getStartTime().toLocalDate())
+                .slot(new TimeSlot(
+                        slot.getStartTime().toLocalTime(), slot.getEndTime().toLocalTime(), slot.getStatus()))
+                .busy(slot.getStatus() == BookingStatus.CONFIRMED || slot.getStatus() == BookingStatus.PENDING)
+                .build();
+
+        // сериализуем один раз на всех подписчиков
+        AvailabilitySubscriber.Frame frame;
+        try {
+            frame = new AvailabilitySubscriber.Frame("delta", objectMapper.writeValueAsString(delta));
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot serialize availability delta for booking {}", bookingId, e);
+            return;
+        }
+
+        allRooms.forEach(subscriber -> subscriber.offer(frame));
+        Optional.ofNullable(byRoom.get(delta.getRoomId()))
+                .ifPresent(subscribers -> subscribers.forEach(subscriber -> subscriber.offer(frame)));
+    }
+
+    private void broadcast(AvailabilitySubscriber.Frame frame) {
+        allRooms.forEach(subscriber -> subscriber.offer(frame));
+        byRoom.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.offer(frame)));
+    }
+
+    private void unsubscribe(Long roomId, AvailabilitySubscriber subscriber) {
+        subscriber.close();
+
+        if (roomId == null) {
+            allRooms.remove(subscriber);
+            return;
+        }
+
+        byRoom.computeIfPresent(roomId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+}
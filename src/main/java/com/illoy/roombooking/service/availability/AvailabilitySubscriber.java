@@ -0,0 +1,124 @@
+package com.illoy.roombooking.service.availability;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/*
+   Одно SSE-соединение с собственной ограниченной очередью кадров.
+   Кадры отправляет одна задача за раз; пока она есть, новые кадры только ставятся в очередь.
+   При переполнении выбрасывается самый старый кадр, а перед следующим отправленным
+   клиент получает resync: состояние у него разошлось, нужно перечитать занятость
+*/
+final class AvailabilitySubscriber {
+
+    record Frame(String name, String data) {
+
+        static final Frame HEARTBEAT = new Frame(null, "heartbeat");
+        static final Frame RESYNC = new Frame("resync", "resync");
+
+        SseEmitter.SseEventBuilder toEvent() {
+            // билдер одноразовый, поэтому собирается на каждую отправку
+            return name == null
+                    ? SseEmitter.event().comment(data)
+                    : SseEmitter.event().name(name).data(data);
+        }
+    }
+
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Executor executor;
+
+    // всё ниже - под монитором queue
+    private final Deque<Frame> queue = new ArrayDeque<>();
+    private boolean draining;
+    private boolean dropped;
+    private boolean closed;
+
+    AvailabilitySubscriber(SseEmitter emitter, int capacity, Executor executor) {
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.executor = executor;
+    }
+
+    void offer(Frame frame) {
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+
+            if (queue.size() >= capacity) {
+                queue.pollFirst();
+                dropped = true;
+            }
+            queue.addLast(frame);
+
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+
+        executor.execute(this::drain);
+    }
+
+    // только простаивающим: занятое соединение и так проверяется отправкой
+    void heartbeat() {
+        synchronized (queue) {
+            if (draining || closed) {
+                return;
+            }
+        }
+
+        offer(Frame.HEARTBEAT);
+    }
+
+    void close() {
+        synchronized (queue) {
+            closed = true;
+            queue.clear();
+        }
+    }
+
+    // закрывает соединение со стороны сервера
+    void complete() {
+        close();
+        emitter.complete();
+    }
+
+    private void drain() {
+        while (true) {
+            Frame frame;
+            boolean resync;
+
+            synchronized (queue) {
+                frame = queue.pollFirst();
+                if (frame == null || closed) {
+                    draining = false;
+                    return;
+                }
+
+                resync = dropped;
+                dropped = false;
+            }
+
+            try {
+                if (resync) {
+                    emitter.send(Frame.RESYNC.toEvent());
+                }
+                if (frame != Frame.RESYNC || !resync) {
+                    emitter.send(frame.toEvent());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // клиент ушёл; из реестра подписчика уберёт колбэк эмиттера
+                close();
+                synchronized (queue) {
+                    draining = false;
+                }
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.illoy.roombooking.service.calendar;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+   Последняя отданная версия ленты на субъект (пользователь или комната).
+   Запись действительна, пока совпадает ETag, поэтому инвалидация не нужна: изменившиеся
+   бронирования дают новую версию, и старая запись просто перезаписывается.
+   Большие ленты не кешируются, чтобы кеш не съедал память
+*/
+@Component
+class CalendarFeedCache {
+
+    record Entry(String etag, byte[] body) {}
+
+    @Value("${spring.application.calendar.cache.max-entries:512}")
+    private int maxEntries;
+
+    @Value("${spring.application.calendar.cache.max-feed-bytes:262144}")
+    private int maxFeedBytes;
+
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    });
+
+    Optional<byte[]> get(String subject, String etag) {
+        return Optional.ofNullable(entries.get(subject))
+                .filter(entry -> entry.etag().equals(etag))
+                .map(Entry::body);
+    }
+
+    void put(String subject, String etag, byte[] body) {
+        entries.put(subject, new Entry(etag, body));
+    }
+
+    // копия того, что пишется в ответ; переполнившаяся перестаёт копировать
+    Capture capture(OutputStream target) {
+        return new Capture(target, maxFeedBytes);
+    }
+
+    static final class Capture extends OutputStream {
+
+        private final OutputStream target;
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream(4096);
+
+        private Capture(OutputStream target, int limit) {
+            this.target = target;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            if (copy != null) {
+                copy.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            if (copy != null) {
+                copy.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        // null - лента больше лимита
+        byte[] captured() {
+            return copy == null ? null : copy.toByteArray();
+        }
+
+        private void checkLimit() {
+            if (copy.size() > limit) {
+                copy = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.illoy.roombooking.service.calendar;
+
+import com.illoy.roombooking.database.entity.BookingStatus;
+import com.illoy.roombooking.database.repository.BookingRepository;
+import com.illoy.roombooking.dto.response.ResourceVersion;
+import com.illoy.roombooking.dto.response.RoomResponse;
+import com.illoy.roombooking.exception.RoomNotFoundException;
+import com.illoy.roombooking.security.AuthenticationService;
+import com.illoy.roombooking.service.catalog.RoomCatalog;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/*
+   Ленты iCalendar для подписки из календарных клиентов: бронирования пользователя и занятость комнаты.
+   Клиенты опрашивают ленты по расписанию, поэтому версия (число бронирований и последний updatedAt
+   в окне) считается одним агрегатом и на совпавший ETag отдаётся 304. Если эту версию уже собирали
+   для другого клиента (ленту комнаты, второе устройство пользователя), отдаются готовые байты
+   из CalendarFeedCache; иначе лента пишется из курсора прямо в ответ, без списка сущностей в памяти
+*/
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CalendarFeedService {
+
+    public static final String TEXT_CALENDAR = "text/calendar;charset=UTF-8";
+
+    private final BookingRepository bookingRepository;
+    private final RoomCatalog roomCatalog;
+    private final AuthenticationService authenticationService;
+    private final CalendarFeedCache feedCache;
+
+    // прошедшие бронирования в ленте, дальше - только будущие
+    @Value("${spring.application.calendar.past-days:90}")
+    private int pastDays;
+
+    // пусто - часовой пояс сервера, в нём хранятся startTime/endTime
+    @Value("${spring.application.calendar.time-zone:}")
+    private String timeZone;
+
+    public ResourceVersion userFeedVersion() {
+        String username = authenticationService.getCurrentUsername();
+        LocalDate windowStart = windowStart();
+        BookingRepository.FeedVersion version =
+                bookingRepository.findUserFeedVersion(username, windowStart.atStartOfDay());
+
+        // в ленте есть названия комнат, поэтому их переименование тоже меняет версию
+        String catalog = Integer.toHexString(roomCatalog.version().getEtag().hashCode());
+        return ResourceVersion.of(
+                "ics-user-" + windowStart.toEpochDay() + "-" + version.getCount() + "-"
+                        + ResourceVersion.stamp(version.getUpdatedAt()) + "-" + catalog,
+                version.getUpdatedAt());
+    }
+
+    public ResourceVersion roomFeedVersion(Long roomId) {
+        RoomResponse room = findActiveRoom(roomId);
+        LocalDate windowStart = windowStart();
+        BookingRepository.FeedVersion version =
+                bookingRepository.findRoomFeedVersion(roomId, windowStart.atStartOfDay());
+
+        return ResourceVersion.of(
+                "ics-room-" + roomId + "-" + windowStart.toEpochDay() + "-" + version.getCount() + "-"
+                        + ResourceVersion.stamp(version.getUpdatedAt()) + "-"
+                        + ResourceVersion.stamp(room.getUpdatedAt()),
+                latest(version.getUpdatedAt(), room.getUpdatedAt()));
+    }
+
+    public void writeUserFeed(ResourceVersion version, OutputStream out) throws IOException {
+        String username = authenticationService.getCurrentUsername();
+
+        write("user:" + username, version, out, writer -> {
+            writer.begin("Room bookings: " + username);
+            try (Stream<Object[]> rows =
+                    bookingRepository.streamUserFeed(username, windowStart().atStartOfDay())) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    String roomName = (String) row[5];
+                    event(writer, row, roomName, roomName);
+                }
+            }
+        });
+    }
+
+    // в ленте комнаты только занятость: кто бронировал, подписчикам знать не нужно
+    public void writeRoomFeed(Long roomId, ResourceVersion version, OutputStream out) throws IOException {
+        RoomResponse room = findActiveRoom(roomId);
+
+        write("room:" + roomId, version, out, writer -> {
+            writer.begin(room.getName());
+            try (Stream<Object[]> rows =
+                    bookingRepository.streamRoomFeed(roomId, windowStart().atStartOfDay())) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    event(writer, row, "Booked", room.getName());
+                }
+            }
+        });
+    }
+
+    private void write(String subject, ResourceVersion version, OutputStream out, FeedBody body) throws IOException {
+        Optional<byte[]> cached = feedCache.get(subject, version.getEtag());
+        if (cached.isPresent()) {
+            out.write(cached.get());
+            return;
+        }
+
+        CalendarFeedCache.Capture capture = feedCache.capture(out);
+        ICalendarWriter writer = new ICalendarWriter(capture, zone());
+        body.write(writer);
+        writer.end();
+
+        /*
+           Версия считалась до чтения ленты, так что изменение между ними попадёт в ленту
+           со старым ETag; следующая версия всё равно будет другой, и запись перезапишется
+        */
+        byte[] feed = capture.captured();
+        if (feed != null) {
+            feedCache.put(subject, version.getEtag(), feed);
+        }
+    }
+
+    private static void event(ICalendarWriter writer, Object[] row, String summary, String location)
+            throws IOException {
+        writer.event(
+                (Long) row[0],
+                (LocalDateTime) row[1],
+                (LocalDateTime) row[2],
+                (BookingStatus) row[3],
+                (LocalDateTime) row[4],
+                summary,
+                location);
+    }
+
+    private RoomResponse findActiveRoom(Long roomId) {
+        return roomCatalog
+                .findActive(roomId)
+                .orElseThrow(() -> new RoomNotFoundException("Room not found or inactive with id: " + roomId));
+    }
+
+    private LocalDate windowStart() {
+        return LocalDate.now().minusDays(pastDays);
+    }
+
+    private ZoneId zone() {
+        return timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+    }
+
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null || first.isAfter(second) ? first : second;
+    }
+
+    @FunctionalInterface
+    private interface FeedBody {
+        void write(ICalendarWriter writer) throws IOException;
+    }
+}
@@ -0,0 +1,137 @@
+package com.illoy.roombooking.service.calendar;
+
+import com.illoy.roombooking.database.entity.BookingStatus;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/*
+   Запись календаря iCalendar (RFC 5545) прямо в поток, по одному событию за раз.
+   Строки заканчиваются CRLF и переносятся после 75 октетов UTF-8 (перенос - CRLF и пробел),
+   время пишется в UTC, чтобы клиентам не нужен был VTIMEZONE
+*/
+final class ICalendarWriter {
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] FOLD = {'\r', '\n', ' '};
+    private static final DateTimeFormatter UTC_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final OutputStream out;
+    private final ZoneId zone;
+
+    ICalendarWriter(OutputStream out, ZoneId zone) {
+        this.out = out;
+        this.zone = zone;
+    }
+
+    void begin(String name) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//illoy//roombooking//RU");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        line("X-WR-CALNAME:" + escape(name));
+    }
+
+    /*
+       DTSTAMP берётся из updatedAt, а не из текущего времени: одинаковые данные дают
+       одинаковые байты, поэтому ленту можно кешировать по версии
+    */
+    void event(
+            Long id,
+            LocalDateTime start,
+            LocalDateTime end,
+            BookingStatus status,
+            LocalDateTime updatedAt,
+            String summary,
+            String location)
+            throws IOException {
+        String stamp = utc(updatedAt != null ? updatedAt : start);
+
+        line("BEGIN:VEVENT");
+        line("UID:booking-" + id + "@roombooking");
+        line("DTSTAMP:" + stamp);
+        line("LAST-MODIFIED:" + stamp);
+        line("DTSTART:" + utc(start));
+        line("DTEND:" + utc(end));
+        line("SUMMARY:" + escape(summary));
+        if (location != null) {
+            line("LOCATION:" + escape(location));
+        }
+        line("STATUS:" + status(status));
+        line("TRANSP:OPAQUE");
+        line("END:VEVENT");
+    }
+
+    void end() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    private String utc(LocalDateTime time) {
+        return time.atZone(zone).withZoneSameInstant(ZoneOffset.UTC).format(UTC_FORMAT);
+    }
+
+    private static String status(BookingStatus status) {
+        return switch (status) {
+            case PENDING -> "TENTATIVE";
+            case CANCELLED -> "CANCELLED";
+            case CONFIRMED, COMPLETED -> "CONFIRMED";
+        };
+    }
+
+    // экранирование TEXT-значений (RFC 5545, 3.3.11)
+    static String escape(String text) {
+        StringBuilder result = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> result.append('\\').append(c);
+                case '\n' -> result.append("\\n");
+                case '\r' -> {}
+                default -> result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    // перенос только между символами: многобайтовый символ UTF-8 не разрывается
+    private void line(String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        int lineStart = 0;
+        int limit = MAX_LINE_OCTETS;
+
+        for (int i = 0; i < bytes.length; ) {
+            int length = utf8Length(bytes[i]);
+            if (i + length - lineStart > limit) {
+                out.write(bytes, lineStart, i - lineStart);
+                out.write(FOLD);
+                lineStart = i;
+                // пробел в начале продолжения тоже занимает октет
+                limit = MAX_LINE_OCTETS - 1;
+            }
+            i += length;
+        }
+
+        out.write(bytes, lineStart, bytes.length - lineStart);
+        out.write(CRLF);
+    }
+
+    private static int utf8Length(byte lead) {
+        if ((lead & 0x80) == 0) {
+            return 1;
+        }
+        if ((lead & 0xE0) == 0xC0) {
+            return 2;
+        }
+        if ((lead & 0xF0) == 0xE0) {
+            return 3;
+        }
+        return 4;
+    }
+}
@@ -0,0 +1,64 @@
+package com.illoy.roombooking.service.catalog;
+
+import com.illoy.roombooking.dto.response.RoomResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+   Комнаты, разложенные по вместимости: bucket[c - 1] - комнаты вместимостью c, по возрастанию id.
+   Вместимость ограничена 1..100 (CHECK в таблице rooms), поэтому диапазон [min, max] - это
+   проход по соседним корзинам, а префиксные суммы заранее дают размер результата
+*/
+final class RoomCapacityIndex {
+
+    static final int MAX_CAPACITY = 100;
+
+    private final RoomResponse[][] buckets = new RoomResponse[MAX_CAPACITY][];
+
+    // prefix[c] - число комнат вместимостью меньше c + 1
+    private final int[] prefix = new int[MAX_CAPACITY + 1];
+
+    RoomCapacityIndex(List<RoomResponse> rooms) {
+        List<List<RoomResponse>> grouped = new ArrayList<>(MAX_CAPACITY);
+        for (int i = 0; i < MAX_CAPACITY; i++) {
+            grouped.add(new ArrayList<>());
+        }
+
+        for (RoomResponse room : rooms) {
+            grouped.get(clamp(room.getCapacity()) - 1).add(room);
+        }
+
+        for (int i = 0; i < MAX_CAPACITY; i++) {
+            List<RoomResponse> bucket = grouped.get(i);
+            bucket.sort(Comparator.comparing(RoomResponse::getId));
+            buckets[i] = bucket.toArray(RoomResponse[]::new);
+            prefix[i + 1] = prefix[i] + buckets[i].length;
+        }
+    }
+
+    // комнаты с вместимостью в [min, max], по возрастанию вместимости
+    List<RoomResponse> find(int min, int max) {
+        int from = clamp(min);
+        int to = clamp(max);
+        if (min > MAX_CAPACITY || max < 1 || from > to) {
+            return List.of();
+        }
+
+        RoomResponse[] result = new RoomResponse[prefix[to] - prefix[from - 1]];
+        int position = 0;
+
+        for (int capacity = from; capacity <= to; capacity++) {
+            RoomResponse[] bucket = buckets[capacity - 1];
+            System.arraycopy(bucket, 0, result, position, bucket.length);
+            position += bucket.length;
+        }
+
+        return Arrays.asList(result);
+    }
+
+    private static int clamp(int capacity) {
+        return Math.max(1, Math.min(capacity, MAX_CAPACITY));
+    }
+}
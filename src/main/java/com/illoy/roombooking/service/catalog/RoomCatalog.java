@@ -0,0 +1,237 @@
+package com.illoy.roombooking.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.database.notify.InvalidationBus;
+import com.illoy.roombooking.database.notify.InvalidationEvent;
+import com.illoy.roombooking.database.repository.RoomRepository;
+import com.illoy.roombooking.dto.response.ResourceVersion;
+import com.illoy.roombooking.dto.response.RoomResponse;
+import com.illoy.roombooking.mapper.RoomMapper;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/*
+   Каталог активных комнат в памяти. Комнат десятки, меняются они редко, поэтому
+   чтения идут без блокировок из неизменяемого среза, который после любого изменения
+   перечитывается из БД целиком при следующем обращении.
+
+   Транзакция, в которой комнаты уже менялись, читает из БД напрямую, минуя срез: он отражает
+   только закоммиченное состояние. Срез сбрасывается по событиям InvalidationBus -
+   и своего узла после коммита, и остальных узлов.
+
+   Срез одного поколения строит один поток, остальные ждут его результат: иначе после
+   инвалидации каждый параллельный запрос перечитывал бы каталог сам
+*/
+@Component
+public class RoomCatalog {
+
+    // свойства RoomResponse, по которым умеем сортировать в памяти
+    private static final Map<String, Comparator<RoomResponse>> SORTABLE = Map.of(
+            "id", Comparator.comparing(RoomResponse::getId),
+            "name", Comparator.comparing(RoomResponse::getName, String.CASE_INSENSITIVE_ORDER),
+            "capacity", Comparator.comparing(RoomResponse::getCapacity),
+            "createdAt",
+                    Comparator.comparing(RoomResponse::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())),
+            "updatedAt",
+                    Comparator.comparing(RoomResponse::getUpdatedAt, Comparator.nullsLast(Comparator.naturalOrder())));
+
+    private final RoomRepository roomRepository;
+    private final RoomMapper roomMapper;
+    private final InvalidationBus invalidationBus;
+    private final ObjectMapper objectMapper;
+
+    /*
+       Для вызывающих без транзакции или в read-only: их чтение ушло бы на реплику, а отстающий
+       срез жил бы до следующей инвалидации. Пишущая транзакция уже на primary и читает в себе
+    */
+    private final TransactionTemplate primaryTransaction;
+
+    private final AtomicReference<RoomCatalogSnapshot> snapshot = new AtomicReference<>();
+
+    // увеличивается при каждой инвалидации, чтобы не сохранить срез, прочитанный до неё
+    private final AtomicLong generation = new AtomicLong();
+
+    // строящийся срез и его поколение - под монитором snapshot
+    private CompletableFuture<RoomCatalogSnapshot> loading;
+    private long loadingGeneration;
+
+    public RoomCatalog(
+            RoomRepository roomRepository,
+            RoomMapper roomMapper,
+            InvalidationBus invalidationBus,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.roomRepository = roomRepository;
+        this.roomMapper = roomMapper;
+        this.invalidationBus = invalidationBus;
+        this.objectMapper = objectMapper;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        invalidationBus.subscribe(InvalidationEvent.Entity.ROOM, event -> invalidate());
+        invalidationBus.onResync(this::invalidate);
+    }
+
+    public List<RoomResponse> findAllActive() {
+        return current().activeRooms();
+    }
+
+    // тот же список, уже сериализованный в JSON; массив общий, менять его нельзя
+    public byte[] findAllActiveJson() {
+        return current().activeRoomsJson(objectMapper);
+    }
+
+    public Optional<RoomResponse> findActive(Long id) {
+        return Optional.ofNullable(current().findActive(id));
+    }
+
+    // ранжированный поиск по названию, см. RoomNameIndex
+    public List<RoomResponse> searchByName(String term) {
+        return current().searchByName(term);
+    }
+
+    public List<RoomResponse> findByCapacity(int min, int max) {
+        return current().findByCapacity(min, max);
+    }
+
+    public long countActive() {
+        return current().activeRooms().size();
+    }
+
+    public ResourceVersion version() {
+        return current().version();
+    }
+
+    public static Comparator<RoomResponse> comparator(Sort sort) {
+        Comparator<RoomResponse> result = null;
+
+        for (Sort.Order order : sort) {
+            Comparator<RoomResponse> comparator = SORTABLE.get(order.getProperty());
+            if (comparator == null) {
+                return null;
+            }
+
+            if (order.isDescending()) comparator = comparator.reversed();
+            result = result == null ? comparator : result.thenComparing(comparator);
+        }
+
+        return result == null ? SORTABLE.get("id") : result;
+    }
+
+    // вызывается при любом изменении комнаты (сервисы и entity listener)
+    public void roomChanged(Long id) {
+        invalidationBus.publish(InvalidationEvent.room(id));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || isChangedInCurrentTransaction()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RoomCatalog.this);
+            }
+        });
+    }
+
+    public void invalidate() {
+        synchronized (snapshot) {
+            generation.incrementAndGet();
+            snapshot.set(null);
+        }
+    }
+
+    private RoomCatalogSnapshot current() {
+        if (isChangedInCurrentTransaction()) {
+            return load();
+        }
+
+        RoomCatalogSnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+
+        CompletableFuture<RoomCatalogSnapshot> pending = null;
+        CompletableFuture<RoomCatalogSnapshot> future = null;
+        long loadedAt;
+        synchronized (snapshot) {
+            current = snapshot.get();
+            if (current != null) {
+                return current;
+            }
+
+            loadedAt = generation.get();
+            if (loading != null && loadingGeneration == loadedAt) {
+                pending = loading;
+            } else {
+                future = new CompletableFuture<>();
+                loading = future;
+                loadingGeneration = loadedAt;
+            }
+        }
+
+        // ждём вне монитора: он нужен загружающему потоку, чтобы опубликовать срез
+        return pending != null ? await(pending) : loadAndPublish(future, loadedAt);
+    }
+
+    private RoomCatalogSnapshot loadAndPublish(CompletableFuture<RoomCatalogSnapshot> future, long loadedAt) {
+        try {
+            RoomCatalogSnapshot loaded = loadCommitted();
+
+            synchronized (snapshot) {
+                if (generation.get() == loadedAt) snapshot.compareAndSet(null, loaded);
+                if (loading == future) loading = null;
+            }
+            future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            synchronized (snapshot) {
+                if (loading == future) loading = null;
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // не больше одного дополнительного соединения на поколение - у загружающего read-only вызывающего
+    private RoomCatalogSnapshot loadCommitted() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return load();
+        }
+
+        return primaryTransaction.execute(status -> load());
+    }
+
+    private static RoomCatalogSnapshot await(CompletableFuture<RoomCatalogSnapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private RoomCatalogSnapshot load() {
+        return new RoomCatalogSnapshot(roomRepository.findByIsActiveTrue().stream()
+                .map(roomMapper::toResponse)
+                .toList());
+    }
+
+    private boolean isChangedInCurrentTransaction() {
+        return TransactionSynchronizationManager.hasResource(this);
+    }
+}
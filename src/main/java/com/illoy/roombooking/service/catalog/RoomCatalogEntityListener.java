@@ -0,0 +1,27 @@
+package com.illoy.roombooking.service.catalog;
+
+import com.illoy.roombooking.database.entity.Room;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/*
+   Изменения комнат в обход RoomService (репозиторием напрямую) тоже сбрасывают каталог.
+   RoomCatalog берётся лениво: listener создаётся вместе с EntityManagerFactory, раньше репозиториев
+*/
+@Component
+@RequiredArgsConstructor
+public class RoomCatalogEntityListener {
+
+    private final ObjectProvider<RoomCatalog> roomCatalog;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void roomChanged(Room room) {
+        roomCatalog.getObject().roomChanged(room.getId());
+    }
+}
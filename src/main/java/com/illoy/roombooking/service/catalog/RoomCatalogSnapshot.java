@@ -0,0 +1,93 @@
+package com.illoy.roombooking.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.dto.response.ResourceVersion;
+import com.illoy.roombooking.dto.response.RoomResponse;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// неизменяемый срез активных комнат, заменяется целиком
+final class RoomCatalogSnapshot {
+
+    private final List<RoomResponse> activeRooms;
+    private final Map<Long, RoomResponse> activeById;
+    private final ResourceVersion version;
+    private final RoomNameIndex nameIndex;
+    private final RoomCapacityIndex capacityIndex;
+
+    // готовый JSON списка активных комнат, считается при первом запросе
+    private volatile byte[] activeRoomsJson;
+
+    RoomCatalogSnapshot(List<RoomResponse> rooms) {
+        this.activeRooms = rooms.stream()
+                .filter(RoomResponse::isActive)
+                .sorted(Comparator.comparing(RoomResponse::getId))
+                .toList();
+
+        Map<Long, RoomResponse> byId = new LinkedHashMap<>();
+        activeRooms.forEach(room -> byId.put(room.getId(), room));
+        this.activeById = Map.copyOf(byId);
+
+        this.version = version(activeRooms);
+        this.nameIndex = new RoomNameIndex(activeRooms);
+        this.capacityIndex = new RoomCapacityIndex(activeRooms);
+    }
+
+    List<RoomResponse> activeRooms() {
+        return activeRooms;
+    }
+
+    RoomResponse findActive(Long id) {
+        return activeById.get(id);
+    }
+
+    List<RoomResponse> searchByName(String term) {
+        return nameIndex.search(term);
+    }
+
+    List<RoomResponse> findByCapacity(int min, int max) {
+        return capacityIndex.find(min, max);
+    }
+
+    // срез неизменяем, поэтому сериализуется один раз, а не на каждый ответ
+    byte[] activeRoomsJson(ObjectMapper objectMapper) {
+        byte[] json = activeRoomsJson;
+        if (json == null) {
+            try {
+                json = objectMapper.writeValueAsBytes(activeRooms);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+            activeRoomsJson = json;
+        }
+
+        return json;
+    }
+
+    ResourceVersion version() {
+        return version;
+    }
+
+    // ETag зависит только от содержимого, поэтому одинаков на всех узлах
+    private static ResourceVersion version(List<RoomResponse> rooms) {
+        long hash = 1125899906842597L;
+        LocalDateTime lastModified = null;
+
+        for (RoomResponse room : rooms) {
+            hash = 31 * hash + room.getId();
+            hash = 31 * hash + ResourceVersion.stamp(room.getUpdatedAt()).hashCode();
+
+            if (room.getUpdatedAt() != null
+                    && (lastModified == null || room.getUpdatedAt().isAfter(lastModified))) {
+                lastModified = room.getUpdatedAt();
+            }
+        }
+
+        return ResourceVersion.of("rooms-" + rooms.size() + "-" + Long.toHexString(hash), lastModified);
+    }
+}
@@ -0,0 +1,179 @@
+package com.illoy.roombooking.service.catalog;
+
+import com.illoy.roombooking.dto.response.RoomResponse;
+import java.util.*;
+
+/*
+   Триграммный индекс названий комнат для поиска по мере ввода.
+
+   Подстрока ищется пересечением списков комнат по всем триграммам запроса с последующей
+   проверкой contains(). Результаты ранжируются: точное совпадение, начало названия,
+   начало слова, любое место. Если подстрока не нашлась нигде, срабатывает нечёткий поиск:
+   сходство по триграммам слов (как similarity() в pg_trgm) не ниже SIMILARITY_THRESHOLD
+*/
+final class RoomNameIndex {
+
+    static final double SIMILARITY_THRESHOLD = 0.3;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final List<RoomResponse> rooms;
+    private final String[] names;
+
+    // триграммы названия целиком (с пробелами) -> позиции комнат по возрастанию
+    private final Map<String, int[]> substringIndex;
+
+    // триграммы отдельных слов с отступами -> позиции комнат, и число таких триграмм у каждой комнаты
+    private final Map<String, int[]> wordIndex;
+    private final int[] wordTrigramCounts;
+
+    RoomNameIndex(List<RoomResponse> rooms) {
+        this.rooms = rooms;
+        this.names = new String[rooms.size()];
+        this.wordTrigramCounts = new int[rooms.size()];
+
+        Map<String, List<Integer>> substring = new HashMap<>();
+        Map<String, List<Integer>> word = new HashMap<>();
+
+        for (int i = 0; i < rooms.size(); i++) {
+            names[i] = normalize(rooms.get(i).getName());
+
+            for (String trigram : substringTrigrams(names[i])) {
+                substring.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+            }
+
+            Set<String> wordTrigrams = wordTrigrams(names[i]);
+            wordTrigramCounts[i] = wordTrigrams.size();
+            for (String trigram : wordTrigrams) {
+                word.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.substringIndex = toArrays(substring);
+        this.wordIndex = toArrays(word);
+    }
+
+    List<RoomResponse> search(String term) {
+        String query = normalize(term);
+        if (query.isEmpty()) {
+            return rooms;
+        }
+
+        List<RoomResponse> matches = substringMatches(query);
+        return matches.isEmpty() ? fuzzyMatches(query) : matches;
+    }
+
+    private List<RoomResponse> substringMatches(String query) {
+        List<Integer> found = new ArrayList<>();
+
+        if (query.length() < 3) {
+            // по одной-двум буквам триграммы не помогут, а комнат немного
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].contains(query)) found.add(i);
+            }
+        } else {
+            for (int i : candidates(query)) {
+                if (names[i].contains(query)) found.add(i);
+            }
+        }
+
+        found.sort(Comparator.<Integer>comparingInt(i -> rank(names[i], query))
+                .thenComparingInt(i -> names[i].length())
+                .thenComparing(i -> names[i]));
+
+        return found.stream().map(rooms::get).toList();
+    }
+
+    // комнаты, в названии которых есть все триграммы запроса
+    private int[] candidates(String query) {
+        int[] result = null;
+
+        for (String trigram : substringTrigrams(query)) {
+            int[] posting = substringIndex.getOrDefault(trigram, EMPTY);
+            result = result == null ? posting : intersect(result, posting);
+            if (result.length == 0) break;
+        }
+
+        return result == null ? EMPTY : result;
+    }
+
+    private List<RoomResponse> fuzzyMatches(String query) {
+        Set<String> queryTrigrams = wordTrigrams(query);
+        if (queryTrigrams.isEmpty()) {
+            return List.of();
+        }
+
+        int[] shared = new int[names.length];
+        for (String trigram : queryTrigrams) {
+            for (int i : wordIndex.getOrDefault(trigram, EMPTY)) {
+                shared[i]++;
+            }
+        }
+
+        List<Integer> found = new ArrayList<>();
+        double[] similarity = new double[names.length];
+
+        for (int i = 0; i < names.length; i++) {
+            if (shared[i] == 0) continue;
+
+            similarity[i] = (double) shared[i] / (queryTrigrams.size() + wordTrigramCounts[i] - shared[i]);
+            if (similarity[i] >= SIMILARITY_THRESHOLD) found.add(i);
+        }
+
+        found.sort(Comparator.<Integer>comparingDouble(i -> -similarity[i]).thenComparing(i -> names[i]));
+        return found.stream().map(rooms::get).toList();
+    }
+
+    private static int rank(String name, String query) {
+        if (name.equals(query)) return 0;
+        if (name.startsWith(query)) return 1;
+        if (name.contains(" " + query)) return 2;
+        return 3;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static Set<String> substringTrigrams(String value) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            trigrams.add(value.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    // как в pg_trgm: каждое слово дополняется двумя пробелами слева и одним справа
+    private static Set<String> wordTrigrams(String value) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : value.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            trigrams.addAll(substringTrigrams("  " + word + " "));
+        }
+        return trigrams;
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> postings) {
+        Map<String, int[]> result = new HashMap<>();
+        postings.forEach((trigram, positions) -> result.put(
+                trigram, positions.stream().mapToInt(Integer::intValue).toArray()));
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                result[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(result, k);
+    }
+}
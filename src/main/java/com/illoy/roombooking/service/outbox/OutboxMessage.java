@@ -0,0 +1,30 @@
+package com.illoy.roombooking.service.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.illoy.roombooking.database.entity.OutboxEvent;
+import com.illoy.roombooking.database.entity.OutboxEventType;
+import java.time.LocalDateTime;
+import lombok.Value;
+
+// то, что уходит в OutboxSink; id события подходит получателям для отсева повторов
+@Value
+public class OutboxMessage {
+    Long id;
+    OutboxEventType type;
+    Long bookingId;
+    Long roomId;
+    LocalDateTime createdAt;
+
+    @JsonRawValue
+    String payload;
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(
+                event.getId(),
+                event.getEventType(),
+                event.getBookingId(),
+                event.getRoomId(),
+                event.getCreatedAt(),
+                event.getPayload());
+    }
+}
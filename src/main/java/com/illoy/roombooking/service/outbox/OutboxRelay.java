@@ -0,0 +1,134 @@
+package com.illoy.roombooking.service.outbox;
+
+import com.illoy.roombooking.database.entity.OutboxEvent;
+import com.illoy.roombooking.database.repository.OutboxEventRepository;
+import java.time.LocalDateTime;
+import java.util.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/*
+   Публикует события из booking_outbox во все OutboxSink пачками.
+
+   Каждая пачка - отдельная транзакция: строки берутся через FOR UPDATE SKIP LOCKED,
+   отправляются и помечаются опубликованными. Релеи нескольких узлов разбирают таблицу
+   параллельно, не мешая друг другу. Порядок внутри комнаты: если у комнаты есть более
+   раннее неопубликованное событие, которое держит другой узел, её события из своей пачки
+   не отправляются - они вернутся в следующем опросе
+*/
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+
+    // не read-only: строки блокируются и обновляются на primary
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spring.application.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.application.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${spring.application.outbox.retention-hours:72}")
+    private long retentionHours;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            List<OutboxSink> sinks,
+            PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.application.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled || sinks.isEmpty()) {
+            return;
+        }
+
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    // разбирает outbox, пока есть что отправлять; возвращает число опубликованных событий
+    public int relay() {
+        int published = 0;
+
+        while (true) {
+            BatchResult batch = transactionTemplate.execute(status -> relayBatch());
+            published += batch.published();
+
+            // неполная пачка - дальше пусто; ничего не отправлено - остальное держат другие узлы
+            if (batch.claimed() < batchSize || batch.published() == 0) {
+                return published;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${spring.application.outbox.cleanup-interval-ms:3600000}")
+    public void purgePublished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+
+        if (deleted != null && deleted > 0) {
+            log.debug("Purged {} published outbox events", deleted);
+        }
+    }
+
+    private BatchResult relayBatch() {
+        List<OutboxEvent> claimed = outboxEventRepository.lockNextBatch(batchSize);
+        if (claimed.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<OutboxEvent> publishable = withoutBlockedRooms(claimed);
+        if (!publishable.isEmpty()) {
+            List<OutboxMessage> messages =
+                    publishable.stream().map(OutboxMessage::of).toList();
+            sinks.forEach(sink -> sink.publish(messages));
+
+            outboxEventRepository.markPublished(
+                    publishable.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+        }
+
+        return new BatchResult(claimed.size(), publishable.size());
+    }
+
+    /*
+       Пачка выбрана по возрастанию id, значит более раннее неопубликованное событие комнаты,
+       не попавшее в неё, заблокировано другим узлом - такие комнаты ждут
+    */
+    private List<OutboxEvent> withoutBlockedRooms(List<OutboxEvent> claimed) {
+        Map<Long, Long> firstClaimedByRoom = new HashMap<>();
+        claimed.forEach(event -> firstClaimedByRoom.merge(event.getRoomId(), event.getId(), Math::min));
+
+        Set<Long> blockedRooms = new HashSet<>();
+        for (Object[] row : outboxEventRepository.findOldestUnpublishedByRoom(firstClaimedByRoom.keySet())) {
+            Long roomId = (Long) row[0];
+            if ((Long) row[1] < firstClaimedByRoom.get(roomId)) {
+                blockedRooms.add(roomId);
+            }
+        }
+
+        if (blockedRooms.isEmpty()) {
+            return claimed;
+        }
+
+        return claimed.stream()
+                .filter(event -> !blockedRooms.contains(event.getRoomId()))
+                .toList();
+    }
+
+    private record BatchResult(int claimed, int published) {}
+}
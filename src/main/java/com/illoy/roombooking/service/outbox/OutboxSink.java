@@ -0,0 +1,14 @@
+package com.illoy.roombooking.service.outbox;
+
+import java.util.List;
+
+/*
+   Получатель событий из outbox (синхронизация календарей, уведомления, СКУД).
+   Пачка упорядочена по id, события одной комнаты идут в порядке коммитов.
+   Исключение откатывает пачку целиком, и она будет отправлена снова - доставка
+   "хотя бы один раз", повторы отсеиваются по OutboxMessage.id
+*/
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,60 @@
+package com.illoy.roombooking.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.database.entity.OutboxEvent;
+import com.illoy.roombooking.database.entity.OutboxEventType;
+import com.illoy.roombooking.database.repository.OutboxEventRepository;
+import com.illoy.roombooking.dto.response.BookingResponse;
+import java.io.UncheckedIOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/*
+   Пишет событие бронирования в booking_outbox в той же транзакции, что и само изменение:
+   событие появляется тогда и только тогда, когда изменение закоммичено.
+
+   Релей публикует события комнаты в порядке id, но id выдаются при вставке, а видны
+   строки после коммита - транзакция с меньшим id может закоммититься позже. Поэтому
+   запись события комнаты берёт advisory-блокировку до конца транзакции: для одной
+   комнаты порядок id совпадает с порядком коммитов
+*/
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    // первый ключ двухключевой advisory-блокировки, второй - id комнаты
+    private static final int ROOM_LOCK_CLASS = 0x6f757462;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEventType type, BookingResponse booking) {
+        // при переполнении int разные комнаты лишь делят блокировку, порядок не страдает
+        jdbcTemplate.query(
+                "SELECT pg_advisory_xact_lock(?, ?)",
+                rs -> null,
+                ROOM_LOCK_CLASS,
+                booking.getRoomId().intValue());
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .bookingId(booking.getId())
+                .roomId(booking.getRoomId())
+                .eventType(type)
+                .payload(toJson(booking))
+                .build());
+    }
+
+    private String toJson(BookingResponse booking) {
+        try {
+            return objectMapper.writeValueAsString(booking);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.illoy.roombooking.service.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+   Корзины в памяти узла: без сетевых вызовов, но у каждого узла свой лимит,
+   и при N узлах за балансировщиком клиент получает до N-кратного. Корзины простаивающих
+   клиентов (уже полные) периодически выбрасываются, чтобы карта не росла по числу IP
+*/
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.application.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiter implements RateLimiter {
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryAcquire(RateLimitRule rule, String key) {
+        long now = System.nanoTime();
+        return buckets.computeIfAbsent(rule.name() + ":" + key, k -> new TokenBucket(rule, now))
+                .tryAcquire(now);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.application.rate-limit.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+
+        if (before > buckets.size()) {
+            log.debug("Purged {} idle rate limit buckets", before - buckets.size());
+        }
+    }
+}
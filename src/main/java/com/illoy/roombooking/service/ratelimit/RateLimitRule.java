@@ -0,0 +1,10 @@
+package com.illoy.roombooking.service.ratelimit;
+
+// корзина токенов: capacity - допустимый всплеск, refillPerSecond - устойчивая частота запросов
+public record RateLimitRule(String name, int capacity, double refillPerSecond) {
+
+    // через сколько миллисекунд появится следующий токен у пустой корзины
+    public long millisPerToken() {
+        return (long) Math.ceil(1000 / refillPerSecond);
+    }
+}
@@ -0,0 +1,10 @@
+package com.illoy.roombooking.service.ratelimit;
+
+/*
+   Хранилище корзин токенов по ключу (пользователь или IP) в рамках правила.
+   Возвращает 0, если токен выдан, иначе - через сколько миллисекунд стоит повторить
+*/
+public interface RateLimiter {
+
+    long tryAcquire(RateLimitRule rule, String key);
+}
@@ -0,0 +1,36 @@
+package com.illoy.roombooking.service.ratelimit;
+
+// токены пополняются лениво при обращении, по прошедшему времени
+final class TokenBucket {
+
+    private final RateLimitRule rule;
+
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(RateLimitRule rule, long now) {
+        this.rule = rule;
+        this.tokens = rule.capacity();
+        this.refilledAt = now;
+    }
+
+    synchronized long tryAcquire(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) * 1000 / rule.refillPerSecond());
+    }
+
+    // полную корзину можно выбросить: новая будет такой же
+    synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= rule.capacity();
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(rule.capacity(), tokens + (now - refilledAt) / 1e9 * rule.refillPerSecond());
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,164 @@
+package com.illoy.roombooking.service.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+   Пишет спаны в файл в формате OTLP JSON (file exporter из спецификации OpenTelemetry):
+   одна строка - один ExportTraceServiceRequest. Файл читают filelog/otlpjsonfile-ресивер
+   коллектора и otel-desktop-viewer, сеть не нужна. Ротация - снаружи (logrotate copytruncate)
+*/
+@Slf4j
+public class OtlpJsonFileSpanExporter implements SpanExporter {
+
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+
+    public OtlpJsonFileSpanExporter(Path path, ObjectMapper objectMapper) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.objectMapper = objectMapper;
+        this.writer = Files.newBufferedWriter(
+                path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            writer.write(objectMapper.writeValueAsString(request(spans)));
+            writer.newLine();
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Cannot write {} spans: {}", spans.size(), e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    // resourceSpans -> scopeSpans -> spans, как в opentelemetry-proto (JSON-отображение)
+    private static Map<String, Object> request(Collection<SpanData> spans) {
+        Map<Resource, Map<InstrumentationScopeInfo, List<SpanData>>> grouped = spans.stream()
+                .collect(Collectors.groupingBy(
+                        SpanData::getResource,
+                        LinkedHashMap::new,
+                        Collectors.groupingBy(
+                                SpanData::getInstrumentationScopeInfo, LinkedHashMap::new, Collectors.toList())));
+
+        List<Map<String, Object>> resourceSpans = new ArrayList<>();
+        grouped.forEach((resource, byScope) -> {
+            List<Map<String, Object>> scopeSpans = new ArrayList<>();
+            byScope.forEach((scope, scoped) -> scopeSpans.add(Map.of(
+                    "scope", scope(scope),
+                    "spans", scoped.stream().map(OtlpJsonFileSpanExporter::span).toList())));
+
+            resourceSpans.add(Map.of(
+                    "resource", Map.of("attributes", attributes(resource.getAttributes())), "scopeSpans", scopeSpans));
+        });
+
+        return Map.of("resourceSpans", resourceSpans);
+    }
+
+    private static Map<String, Object> scope(InstrumentationScopeInfo scope) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("name", scope.getName());
+        if (scope.getVersion() != null) {
+            json.put("version", scope.getVersion());
+        }
+        return json;
+    }
+
+    private static Map<String, Object> span(SpanData span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        if (SpanId.isValid(span.getParentSpanId())) {
+            json.put("parentSpanId", span.getParentSpanId());
+        }
+        json.put("name", span.getName());
+        // SPAN_KIND_INTERNAL = 1 ... SPAN_KIND_CONSUMER = 5, порядок совпадает с SpanKind
+        json.put("kind", span.getKind().ordinal() + 1);
+        // int64 в OTLP JSON - строкой
+        json.put("startTimeUnixNano", String.valueOf(span.getStartEpochNanos()));
+        json.put("endTimeUnixNano", String.valueOf(span.getEndEpochNanos()));
+        json.put("attributes", attributes(span.getAttributes()));
+        if (!span.getEvents().isEmpty()) {
+            json.put(
+                    "events",
+                    span.getEvents().stream()
+                            .map(event -> Map.of(
+                                    "timeUnixNano", String.valueOf(event.getEpochNanos()),
+                                    "name", event.getName(),
+                                    "attributes", attributes(event.getAttributes())))
+                            .toList());
+        }
+        // STATUS_CODE_UNSET = 0, OK = 1, ERROR = 2 - порядок StatusCode
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("code", span.getStatus().getStatusCode().ordinal());
+        if (!span.getStatus().getDescription().isEmpty()) {
+            status.put("message", span.getStatus().getDescription());
+        }
+        json.put("status", status);
+        return json;
+    }
+
+    private static List<Map<String, Object>> attributes(Attributes attributes) {
+        List<Map<String, Object>> json = new ArrayList<>();
+        attributes.forEach((key, value) -> json.add(Map.of("key", key.getKey(), "value", value(key, value))));
+        return json;
+    }
+
+    private static Map<String, Object> value(AttributeKey<?> key, Object value) {
+        return switch (key.getType()) {
+            case STRING, BOOLEAN, LONG, DOUBLE -> scalar(value);
+            default -> Map.of(
+                    "arrayValue",
+                    Map.of(
+                            "values",
+                            ((List<?>) value)
+                                    .stream()
+                                            .map(OtlpJsonFileSpanExporter::scalar)
+                                            .toList()));
+        };
+    }
+
+    private static Map<String, Object> scalar(Object value) {
+        return switch (value) {
+            case Boolean bool -> Map.of("boolValue", bool);
+            case Long number -> Map.of("intValue", String.valueOf(number));
+            case Double number -> Map.of("doubleValue", number);
+            default -> Map.of("stringValue", String.valueOf(value));
+        };
+    }
+}
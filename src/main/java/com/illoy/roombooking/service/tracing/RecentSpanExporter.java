@@ -0,0 +1,110 @@
+package com.illoy.roombooking.service.tracing;
+
+import com.illoy.roombooking.dto.response.SpanResponse;
+import com.illoy.roombooking.dto.response.TraceResponse;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+   Последние N завершённых спанов в памяти - для /api/admin/traces, когда коллектора нет.
+   Спаны приходят пачками из BatchSpanProcessor; старые вытесняются, так что у давних трасс
+   часть спанов может уже отсутствовать
+*/
+@Component
+public class RecentSpanExporter implements SpanExporter {
+
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    @Value("${spring.application.tracing.memory.max-spans:2000}")
+    private int maxSpans;
+
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> batch) {
+        synchronized (spans) {
+            for (SpanData span : batch) {
+                if (spans.size() == maxSpans) {
+                    spans.removeFirst();
+                }
+                spans.addLast(span);
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    // трассы по убыванию времени начала
+    public List<TraceResponse> traces(int limit) {
+        List<SpanData> snapshot;
+        synchronized (spans) {
+            snapshot = new ArrayList<>(spans);
+        }
+
+        return snapshot.stream().collect(Collectors.groupingBy(SpanData::getTraceId)).entrySet().stream()
+                .map(entry -> toTrace(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(TraceResponse::getStartedAt).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void clear() {
+        synchronized (spans) {
+            spans.clear();
+        }
+    }
+
+    private static TraceResponse toTrace(String traceId, List<SpanData> spans) {
+        List<SpanData> ordered = spans.stream()
+                .sorted(Comparator.comparingLong(SpanData::getStartEpochNanos))
+                .toList();
+        long start = ordered.getFirst().getStartEpochNanos();
+        long end = ordered.stream().mapToLong(SpanData::getEndEpochNanos).max().orElse(start);
+
+        // корень - спан без родителя, если он ещё в буфере
+        SpanData root = ordered.stream()
+                .filter(span -> !SpanId.isValid(span.getParentSpanId()))
+                .findFirst()
+                .orElse(ordered.getFirst());
+
+        return TraceResponse.builder()
+                .traceId(traceId)
+                .name(root.getName())
+                .startedAt(Instant.ofEpochSecond(0, start))
+                .durationMs((end - start) / NANOS_PER_MS)
+                .spans(ordered.stream().map(span -> toSpan(span, start)).toList())
+                .build();
+    }
+
+    private static SpanResponse toSpan(SpanData span, long traceStart) {
+        Map<String, String> attributes = new TreeMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+
+        return SpanResponse.builder()
+                .spanId(span.getSpanId())
+                .parentSpanId(SpanId.isValid(span.getParentSpanId()) ? span.getParentSpanId() : null)
+                .name(span.getName())
+                .kind(span.getKind().name())
+                .startOffsetMs((span.getStartEpochNanos() - traceStart) / NANOS_PER_MS)
+                .durationMs((span.getEndEpochNanos() - span.getStartEpochNanos()) / NANOS_PER_MS)
+                .status(span.getStatus().getStatusCode().name())
+                .attributes(attributes)
+                .build();
+    }
+}
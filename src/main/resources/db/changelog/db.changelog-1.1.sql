@@ -0,0 +1,17 @@
+-- liquibase formatted sql
+
+-- changeset romanh:6
+create table if not exists booking_outbox(
+    id BIGSERIAL PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    room_id BIGINT NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+-- changeset romanh:7
+CREATE INDEX idx_booking_outbox_unpublished ON booking_outbox(id) WHERE published_at IS NULL;
+CREATE INDEX idx_booking_outbox_room_unpublished ON booking_outbox(room_id, id) WHERE published_at IS NULL;
+CREATE INDEX idx_booking_outbox_published_at ON booking_outbox(published_at) WHERE published_at IS NOT NULL;
@@ -0,0 +1,11 @@
+-- liquibase formatted sql
+
+-- changeset romanh:8
+create unlogged table if not exists rate_limit_buckets(
+    bucket_key VARCHAR(255) PRIMARY KEY,
+    tokens DOUBLE PRECISION NOT NULL,
+    refilled_at TIMESTAMP NOT NULL
+);
+
+-- changeset romanh:9
+CREATE INDEX idx_rate_limit_buckets_refilled_at ON rate_limit_buckets(refilled_at);
@@ -0,0 +1,174 @@
+package com.illoy.roombooking.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.RoombookingApplication;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.Value;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/*
+   Размер ответа и CPU на запрос для /api/users/me/bookings: стандартный Jackson и Blackbird,
+   без сжатия и с gzip. CPU - процессное время JVM (сервер и клиент вместе), клиент во всех
+   вариантах одинаковый, поэтому разница относится к серверу.
+   Запуск: ./mvnw test -Pbenchmark -Dtest=ResponseEncodingBenchmarkTest
+   Параметры: -Dbenchmark.bookings=100 -Dbenchmark.warmup-seconds=5 -Dbenchmark.duration-seconds=15
+*/
+@Tag("benchmark")
+@Testcontainers
+public class ResponseEncodingBenchmarkTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:17.6");
+
+    private static final int BOOKINGS = Integer.getInteger("benchmark.bookings", 100);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 5));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 15));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void compareSerializersAndCompression() throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (boolean blackbird : new boolean[] {false, true}) {
+            for (boolean gzip : new boolean[] {false, true}) {
+                results.add(run(blackbird, gzip));
+            }
+        }
+
+        System.out.printf("%-22s %10s %12s %12s%n", "variant", "bytes", "req/s", "cpu us/req");
+        results.forEach(result -> System.out.println(result.format()));
+
+        assertThat(results).allMatch(result -> result.getRequests() > 0);
+        // gzip должен реально уменьшать ответ
+        assertThat(results.get(1).getBytes()).isLessThan(results.get(0).getBytes());
+    }
+
+    private Result run(boolean blackbird, boolean gzip) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RoombookingApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "server.compression.enabled=" + gzip,
+                        "server.compression.min-response-size=1KB",
+                        "spring.application.json.blackbird.enabled=" + blackbird,
+                        "spring.datasource.url=" + container.getJdbcUrl(),
+                        "spring.datasource.username=" + container.getUsername(),
+                        "spring.datasource.password=" + container.getPassword(),
+                        "spring.jpa.properties.hibernate.show_sql=false")
+                .run()) {
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String username = "enc" + (System.nanoTime() % 1_000_000_000L);
+            String token = register(port, username);
+            seedBookings(context.getBean(JdbcTemplate.class), username);
+
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/api/users/me/bookings?size=" + BOOKINGS))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Accept-Encoding", gzip ? "gzip" : "identity")
+                    .GET()
+                    .build();
+
+            String name = (blackbird ? "blackbird" : "jackson") + (gzip ? " + gzip" : "");
+            return drive(name, request);
+        }
+    }
+
+    private void seedBookings(JdbcTemplate jdbcTemplate, String username) {
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+        jdbcTemplate.update("INSERT INTO rooms (name, capacity) VALUES ('Encoding Room', 10) ON CONFLICT DO NOTHING");
+        Long roomId = jdbcTemplate.queryForObject("SELECT id FROM rooms WHERE name = 'Encoding Room'", Long.class);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime from = start.plusHours(i);
+            jdbcTemplate.update(
+                    "INSERT INTO bookings (start_time, end_time, room_id, user_id) VALUES (?, ?, ?, ?)",
+                    from,
+                    from.plusMinutes(30),
+                    roomId,
+                    userId);
+        }
+    }
+
+    private String register(int port, String username) throws Exception {
+        Map<String, String> body =
+                Map.of("username", username, "email", username + "@test.com", "password", "bench123");
+
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(201);
+        JsonNode json = objectMapper.readTree(response.body());
+        return json.get("token").asText();
+    }
+
+    private Result drive(String name, HttpRequest request) throws Exception {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+        long warmupTo = System.nanoTime() + WARMUP.toNanos();
+        while (System.nanoTime() < warmupTo) {
+            httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        long requests = 0;
+        long bytes = 0;
+        long cpuFrom = os.getProcessCpuTime();
+        long measureFrom = System.nanoTime();
+        long measureTo = measureFrom + MEASURE.toNanos();
+
+        while (System.nanoTime() < measureTo) {
+            // тело не распаковывается: считаем байты на проводе
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(response.statusCode()).isEqualTo(200);
+            bytes = response.body().length;
+            requests++;
+        }
+
+        long elapsed = System.nanoTime() - measureFrom;
+        long cpu = os.getProcessCpuTime() - cpuFrom;
+
+        return new Result(name, requests, bytes, requests / (elapsed / 1e9), cpu / 1e3 / requests);
+    }
+
+    @Value
+    private static class Result {
+        String name;
+        long requests;
+        long bytes;
+        double throughput;
+        double cpuMicrosPerRequest;
+
+        String format() {
+            return String.format("%-22s %10d %12.1f %12.1f", name, bytes, throughput, cpuMicrosPerRequest);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.illoy.roombooking.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.RoombookingApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Value;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/*
+   Сравнение пропускной способности и p99 на платформенных и виртуальных потоках.
+   Запуск: ./mvnw test -Pbenchmark -Dtest=VirtualThreadLoadBenchmarkTest
+   Параметры: -Dbenchmark.clients=400 -Dbenchmark.warmup-seconds=5 -Dbenchmark.duration-seconds=20
+*/
+@Tag("benchmark")
+@Testcontainers
+public class VirtualThreadLoadBenchmarkTest {
+
+    @Container
+    private static final PostgreSQLContainer container = new PostgreSQLContainer("postgres:17.6");
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 5));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 20));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void compareVirtualAndPlatformThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%-10s %12s %10s %10s %8s%n", "threads", "req/s", "p50 ms", "p99 ms", "errors");
+        System.out.println(platform.format("platform"));
+        System.out.println(virtual.format("virtual"));
+
+        assertThat(platform.getRequests()).isPositive();
+        assertThat(virtual.getRequests()).isPositive();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String[] profiles = virtualThreads ? new String[] {"test", "virtual"} : new String[] {"test"};
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RoombookingApplication.class)
+                .profiles(profiles)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + container.getJdbcUrl(),
+                        "spring.datasource.username=" + container.getUsername(),
+                        "spring.datasource.password=" + container.getPassword(),
+                        "spring.jpa.properties.hibernate.show_sql=false")
+                .run()) {
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            Long roomId = seedRoom(context.getBean(JdbcTemplate.class));
+            String token = register(port);
+
+            LocalDateTime start = LocalDateTime.now()
+                    .plusDays(1)
+                    .withHour(10)
+                    .withMinute(0)
+                    .withSecond(0)
+                    .withNano(0);
+            URI uri = URI.create("http://localhost:" + port + "/api/rooms/" + roomId + "/availability?startTime="
+                    + start + "&endTime=" + start.plusHours(1));
+
+            return drive(uri, token);
+        }
+    }
+
+    private Long seedRoom(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO rooms (name, capacity) VALUES ('Benchmark Room', 10) ON CONFLICT DO NOTHING");
+        return jdbcTemplate.queryForObject("SELECT id FROM rooms WHERE name = 'Benchmark Room'", Long.class);
+    }
+
+    private String register(int port) throws Exception {
+        String username = "bench" + (System.nanoTime() % 1_000_000_000L);
+        Map<String, String> body =
+                Map.of("username", username, "email", username + "@test.com", "password", "bench123");
+
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(201);
+        JsonNode json = objectMapper.readTree(response.body());
+        return json.get("token").asText();
+    }
+
+    private Result drive(URI uri, String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureTo = measureFrom + MEASURE.toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        List<Future<List<Long>>> workers = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                workers.add(clients.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < measureTo) {
+                        long sentAt = System.nanoTime();
+                        int status;
+                        try {
+                            status = httpClient
+                                    .send(request, HttpResponse.BodyHandlers.discarding())
+                                    .statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        long receivedAt = System.nanoTime();
+
+                        if (sentAt >= measureFrom && receivedAt <= measureTo) {
+                            if (status == 200) latencies.add(receivedAt - sentAt);
+                            else errors.incrementAndGet();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+        }
+
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> worker : workers) {
+            all.addAll(worker.get());
+        }
+        Collections.sort(all);
+
+        return new Result(
+                all.size(),
+                all.size() / (double) MEASURE.toSeconds(),
+                percentileMs(all, 0.50),
+                percentileMs(all, 0.99),
+                errors.get());
+    }
+
+    private double percentileMs(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) return 0;
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Value
+    private static class Result {
+        long requests;
+        double throughput;
+        double p50Ms;
+        double p99Ms;
+        long errors;
+
+        String format(String name) {
+            return String.format("%-10s %12.1f %10.2f %10.2f %8d", name, throughput, p50Ms, p99Ms, errors);
+        }
+    }
+}
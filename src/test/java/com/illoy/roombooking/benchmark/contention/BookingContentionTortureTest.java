@@ -0,0 +1,265 @@
+package com.illoy.roombooking.benchmark.contention;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.illoy.roombooking.dto.request.BookingCreateRequest;
+import com.illoy.roombooking.dto.response.BookingResponse;
+import com.illoy.roombooking.exception.RoomNotAvailableException;
+import com.illoy.roombooking.service.BookingService;
+import com.illoy.roombooking.service.catalog.RoomCatalog;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/*
+   Стресс-проверка модели конкурентности BookingService.create: тысячи одновременных попыток
+   забронировать пересекающиеся интервалы в нескольких комнатах. Все потоки стартуют по общей
+   защёлке, окно короткое, поэтому почти каждая попытка с кем-то конкурирует.
+
+   Итоговая таблица сверяется с эталоном (OverlapOracle):
+   - активные брони одной комнаты не пересекаются;
+   - в таблице ровно те брони, о которых сервис ответил успехом;
+   - каждый отказ RoomNotAvailableException оправдан пересекающейся бронью в итоговой таблице;
+   - других исключений нет.
+   Печатается пропускная способность и задержки create.
+
+   Запуск: ./mvnw test -Pbenchmark -Dtest=BookingContentionTortureTest
+   Параметры: -Dtorture.attempts=5000 -Dtorture.concurrency=64 -Dtorture.rooms=3
+              -Dtorture.window-hours=4 -Dtorture.users=32 -Dtorture.seed=42
+*/
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+@ActiveProfiles("test")
+@Testcontainers
+public class BookingContentionTortureTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:17.6");
+
+    private static final int ATTEMPTS = Integer.getInteger("torture.attempts", 5000);
+    private static final int CONCURRENCY = Integer.getInteger("torture.concurrency", 64);
+    private static final int ROOMS = Integer.getInteger("torture.rooms", 3);
+    private static final int WINDOW_HOURS = Integer.getInteger("torture.window-hours", 4);
+    private static final int USERS = Integer.getInteger("torture.users", 32);
+    private static final long SEED = Long.getLong("torture.seed", 42);
+
+    // сетка начала и длительности - 15 минут, длительность от 30 минут (минимум сервиса) до 2 часов
+    private static final int STEP_MINUTES = 15;
+    private static final int MAX_DURATION_STEPS = 8;
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private record Attempt(long roomId, LocalDateTime start, LocalDateTime end) {}
+
+    // итог одного потока: без синхронизации, сливается после завершения всех
+    private static final class Outcome {
+        final List<BookingResponse> confirmed = new ArrayList<>();
+        final List<Attempt> rejected = new ArrayList<>();
+        final Map<String, Long> errors = new TreeMap<>();
+        final Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+
+        void merge(Outcome other) {
+            confirmed.addAll(other.confirmed);
+            rejected.addAll(other.rejected);
+            other.errors.forEach((name, count) -> errors.merge(name, count, Long::sum));
+            latency.add(other.latency);
+        }
+    }
+
+    @Test
+    void concurrentCreate_shouldNeverOverlapActiveBookings() throws Exception {
+        List<Long> roomIds = seedRooms();
+        List<String> usernames = seedUsers();
+        List<Attempt> attempts = attempts(roomIds);
+
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> workers = new ArrayList<>();
+        long startedAt;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                String username = usernames.get(i % usernames.size());
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    return run(username, attempts, next);
+                }));
+            }
+            startedAt = System.nanoTime();
+            start.countDown();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        Outcome outcome = new Outcome();
+        for (Future<Outcome> worker : workers) {
+            outcome.merge(worker.get());
+        }
+
+        List<OverlapOracle.Interval> active = activeBookings(roomIds);
+        OverlapOracle oracle = new OverlapOracle(active);
+        List<String> overlaps = oracle.overlaps();
+        List<Attempt> unjustified = outcome.rejected.stream()
+                .filter(attempt -> !oracle.isTaken(attempt.roomId(), attempt.start(), attempt.end()))
+                .toList();
+        Set<Long> confirmedIds =
+                outcome.confirmed.stream().map(BookingResponse::getId).collect(Collectors.toSet());
+        Set<Long> activeIds = active.stream().map(OverlapOracle.Interval::id).collect(Collectors.toSet());
+
+        print(outcome, elapsed, overlaps.size(), unjustified.size());
+
+        assertThat(overlaps).as("overlapping active bookings").isEmpty();
+        assertThat(activeIds).as("active bookings vs successful responses").isEqualTo(confirmedIds);
+        assertThat(unjustified).as("rejections without a conflicting booking").isEmpty();
+        assertThat(outcome.errors).as("unexpected exceptions").isEmpty();
+        assertThat(outcome.confirmed.size() + outcome.rejected.size()).isEqualTo(ATTEMPTS);
+    }
+
+    private Outcome run(String username, List<Attempt> attempts, AtomicInteger next) {
+        Outcome outcome = new Outcome();
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(
+                        username, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        try {
+            for (int i = next.getAndIncrement(); i < attempts.size(); i = next.getAndIncrement()) {
+                Attempt attempt = attempts.get(i);
+                long sentAt = System.nanoTime();
+                try {
+                    outcome.confirmed.add(bookingService.create(BookingCreateRequest.builder()
+                            .roomId(attempt.roomId())
+                            .startTime(attempt.start())
+                            .endTime(attempt.end())
+                            .build()));
+                } catch (RoomNotAvailableException e) {
+                    outcome.rejected.add(attempt);
+                } catch (RuntimeException e) {
+                    outcome.errors.merge(e.getClass().getSimpleName(), 1L, Long::sum);
+                }
+                outcome.latency.recordValue(Math.min(System.nanoTime() - sentAt, HIGHEST_TRACKABLE_NANOS));
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        return outcome;
+    }
+
+    // попытки генерируются заранее и детерминированно, потоки разбирают их из общей очереди
+    private List<Attempt> attempts(List<Long> roomIds) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        LocalDateTime windowStart =
+                LocalDateTime.of(LocalDateTime.now().toLocalDate().plusDays(2), LocalTime.of(9, 0));
+        int windowSteps = WINDOW_HOURS * 60 / STEP_MINUTES;
+
+        List<Attempt> attempts = new ArrayList<>(ATTEMPTS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            int durationSteps = 2 + random.nextInt(MAX_DURATION_STEPS - 1);
+            int startStep = random.nextInt(Math.max(windowSteps - durationSteps, 0) + 1);
+            LocalDateTime start = windowStart.plusMinutes((long) startStep * STEP_MINUTES);
+
+            attempts.add(new Attempt(
+                    roomIds.get(random.nextInt(roomIds.size())),
+                    start,
+                    start.plusMinutes((long) durationSteps * STEP_MINUTES)));
+        }
+        return attempts;
+    }
+
+    private List<Long> seedRooms() {
+        for (int i = 0; i < ROOMS; i++) {
+            jdbcTemplate.update("INSERT INTO rooms (name, capacity) VALUES (?, 10)", "torture-room-" + i);
+        }
+        // комнаты вставлены мимо приложения
+        roomCatalog.invalidate();
+        return jdbcTemplate.queryForList("SELECT id FROM rooms WHERE name LIKE 'torture-%' ORDER BY id", Long.class);
+    }
+
+    // пароль не нужен: аутентификация кладётся в SecurityContext напрямую
+    private List<String> seedUsers() {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String username = "torture-user-" + i;
+            jdbcTemplate.update(
+                    "INSERT INTO users (username, email, password, role) VALUES (?, ?, 'unused', 'ROLE_USER')",
+                    username,
+                    username + "@example.com");
+            usernames.add(username);
+        }
+        return usernames;
+    }
+
+    private List<OverlapOracle.Interval> activeBookings(List<Long> roomIds) {
+        return jdbcTemplate.query(
+                "SELECT id, room_id, start_time, end_time FROM bookings "
+                        + "WHERE room_id = ANY (?) AND status IN ('CONFIRMED', 'PENDING')",
+                (rs, rowNum) -> new OverlapOracle.Interval(
+                        rs.getLong("id"),
+                        rs.getLong("room_id"),
+                        rs.getTimestamp("start_time").toLocalDateTime(),
+                        rs.getTimestamp("end_time").toLocalDateTime()),
+                (Object) roomIds.toArray(Long[]::new));
+    }
+
+    private void print(Outcome outcome, Duration elapsed, int overlaps, int unjustified) {
+        double seconds = elapsed.toNanos() / 1e9;
+        Histogram latency = outcome.latency;
+
+        System.out.printf(
+                "attempts %d, concurrency %d, rooms %d: %d confirmed, %d rejected, %d errors in %.2f s%n",
+                ATTEMPTS,
+                CONCURRENCY,
+                ROOMS,
+                outcome.confirmed.size(),
+                outcome.rejected.size(),
+                outcome.errors.values().stream().mapToLong(Long::longValue).sum(),
+                seconds);
+        System.out.printf(
+                "throughput %.1f attempts/s, create p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                ATTEMPTS / seconds,
+                latency.getValueAtPercentile(50) / 1e6,
+                latency.getValueAtPercentile(99) / 1e6,
+                latency.getMaxValue() / 1e6);
+        System.out.printf(
+                "oracle: %d overlapping pairs, %d unjustified rejections, errors %s%n",
+                overlaps, unjustified, outcome.errors);
+    }
+}
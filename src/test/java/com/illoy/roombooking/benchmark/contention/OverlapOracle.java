@@ -0,0 +1,59 @@
+package com.illoy.roombooking.benchmark.contention;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/*
+   Эталонная проверка итоговой таблицы: активные брони одной комнаты не пересекаются.
+   Интервалы полуоткрытые [start, end): бронь, начинающаяся в момент окончания другой, не конфликт
+*/
+final class OverlapOracle {
+
+    record Interval(long id, long roomId, LocalDateTime start, LocalDateTime end) {
+
+        boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return start.isBefore(otherEnd) && otherStart.isBefore(end);
+        }
+
+        @Override
+        public String toString() {
+            return "#" + id + " [" + start + ", " + end + ")";
+        }
+    }
+
+    private final Map<Long, List<Interval>> byRoom;
+
+    OverlapOracle(Collection<Interval> active) {
+        byRoom = active.stream()
+                .collect(Collectors.groupingBy(
+                        Interval::roomId, Collectors.collectingAndThen(Collectors.toList(), intervals -> {
+                            intervals.sort(Comparator.comparing(Interval::start).thenComparing(Interval::id));
+                            return intervals;
+                        })));
+    }
+
+    // проход по отсортированным началам: пересечение есть, если бронь начинается раньше самого позднего конца
+    List<String> overlaps() {
+        List<String> violations = new ArrayList<>();
+
+        byRoom.forEach((roomId, intervals) -> {
+            Interval latest = null;
+            for (Interval interval : intervals) {
+                if (latest != null && interval.start().isBefore(latest.end())) {
+                    violations.add("room " + roomId + ": " + latest + " overlaps " + interval);
+                }
+                if (latest == null || interval.end().isAfter(latest.end())) {
+                    latest = interval;
+                }
+            }
+        });
+
+        return violations;
+    }
+
+    // отказ оправдан, только если в итоговой таблице есть пересекающаяся активная бронь
+    boolean isTaken(long roomId, LocalDateTime start, LocalDateTime end) {
+        return byRoom.getOrDefault(roomId, List.of()).stream().anyMatch(interval -> interval.overlaps(start, end));
+    }
+}
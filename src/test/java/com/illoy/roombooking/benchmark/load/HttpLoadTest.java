@@ -0,0 +1,387 @@
+package com.illoy.roombooking.benchmark.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.dataset.SyntheticDataset;
+import com.illoy.roombooking.service.catalog.RoomCatalog;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/*
+   Нагрузочный прогон настоящего приложения по HTTP со смесью запросов: вход, списки комнат,
+   подбор и проверка доступности, свои бронирования, создание с отменой, аналитика.
+   База - Testcontainers с синтетическим набором (SyntheticDataset), клиенты - виртуальные потоки,
+   каждый со своим пользователем. Модель закрытая: клиент шлёт следующий запрос после ответа.
+   Задержки по эндпоинтам пишутся в HdrHistogram, распределения - в target/load-test/*.hgrm.
+   Прогон падает, если p99 какого-то эндпоинта, общая пропускная способность или доля ошибок
+   выходят за пороги.
+
+   Запуск: ./mvnw test -Pbenchmark -Dtest=HttpLoadTest
+   Параметры: -Dload.clients=64 -Dload.warmup-seconds=10 -Dload.duration-seconds=30
+              -Dload.mix=availability:25,my-bookings:20,... (веса операций, см. DEFAULT_MIX)
+              -Dload.slo.p99-ms=300 -Dload.slo.p99-ms.login=800 -Dload.slo.min-throughput=50
+              -Dload.slo.max-error-rate=0.01
+              -Dload.users=500 -Dload.rooms=50 -Dload.days=120 -Dload.seed=42
+*/
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+            "spring.jpa.properties.hibernate.show_sql=false",
+            // меряется сам сервис: отказы 503 адаптивного предела засчитывались бы в ошибки
+            "spring.application.concurrency-limit.enabled=false"
+        })
+@ActiveProfiles("test")
+@Testcontainers
+public class HttpLoadTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:17.6");
+
+    private static final String DEFAULT_MIX =
+            "login:2,rooms:15,available:10,availability:25,my-bookings:20,booking:10,dashboard:3";
+
+    // пороги p99 для эндпоинтов, медленных по природе (BCrypt, запись, агрегаты); остальным - load.slo.p99-ms
+    private static final Map<String, Double> DEFAULT_P99_MS =
+            Map.of("login", 800.0, "create-booking", 500.0, "cancel-booking", 500.0, "dashboard", 1500.0);
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 64);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("load.duration-seconds", 30));
+    private static final long SEED = Long.getLong("load.seed", 42);
+
+    private static final String PASSWORD = "password";
+    private static final String ADMIN = "load-admin";
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private SyntheticDataset.Spec spec;
+    private List<Long> roomIds;
+    private String adminToken;
+
+    @Test
+    void mixedLoad_shouldMeetSlo() throws Exception {
+        seed();
+        Mix mix = Mix.parse(System.getProperty("load.mix", DEFAULT_MIX));
+
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureTo = measureFrom + MEASURE.toNanos();
+
+        List<Future<LatencyReport>> workers = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                Client client = new Client(
+                        spec.username(i % spec.getUsers()), new SplittableRandom(SEED + i), measureFrom, measureTo);
+                workers.add(clients.submit(() -> client.run(mix)));
+            }
+        }
+
+        LatencyReport report = new LatencyReport();
+        for (Future<LatencyReport> worker : workers) {
+            report.merge(worker.get());
+        }
+
+        report.print(MEASURE, System.out);
+        report.writeHistograms(Path.of("target", "load-test"));
+
+        List<String> violations = report.violations(slo(), MEASURE);
+        assertThat(violations).as("SLO violations").isEmpty();
+    }
+
+    private void seed() throws Exception {
+        spec = SyntheticDataset.Spec.builder()
+                .seed(SEED)
+                .users(Integer.getInteger("load.users", 500))
+                .rooms(Integer.getInteger("load.rooms", 50))
+                .days(Integer.getInteger("load.days", 120))
+                // нагрузке нужны и прошедшие, и будущие брони относительно сегодняшнего дня
+                .startDate(LocalDate.now().minusDays(60))
+                .referenceDate(LocalDate.now())
+                .bookingsPerRoomDay(6)
+                .password(PASSWORD)
+                .prefix("load-")
+                .build();
+        SyntheticDataset.Summary summary = new SyntheticDataset(spec).load(dataSource);
+        System.out.printf(
+                "Dataset: %d users, %d rooms, %d bookings in %d ms%n",
+                summary.getUsers(),
+                summary.getRooms(),
+                summary.getBookings(),
+                summary.getElapsed().toMillis());
+
+        jdbcTemplate.update(
+                "INSERT INTO users (username, email, password, role) VALUES (?, ?, ?, 'ROLE_ADMIN')",
+                ADMIN,
+                ADMIN + "@example.com",
+                passwordEncoder.encode(PASSWORD));
+        // комнаты загружены мимо приложения
+        roomCatalog.invalidate();
+
+        roomIds = jdbcTemplate.queryForList("SELECT id FROM rooms WHERE name LIKE 'load-%' ORDER BY id", Long.class);
+        adminToken = authenticate(ADMIN);
+    }
+
+    private LatencyReport.Slo slo() {
+        Map<String, Double> p99 = new HashMap<>(DEFAULT_P99_MS);
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("load.slo.p99-ms."))
+                .forEach(name -> p99.put(
+                        name.substring("load.slo.p99-ms.".length()), Double.parseDouble(System.getProperty(name))));
+
+        return new LatencyReport.Slo(
+                p99,
+                Double.parseDouble(System.getProperty("load.slo.p99-ms", "300")),
+                Double.parseDouble(System.getProperty("load.slo.min-throughput", "50")),
+                Double.parseDouble(System.getProperty("load.slo.max-error-rate", "0.01")));
+    }
+
+    private String authenticate(String username) throws Exception {
+        HttpResponse<String> response = httpClient.send(loginRequest(username), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("login " + username).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpRequest loginRequest(String username) throws Exception {
+        return HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        objectMapper.writeValueAsString(Map.of("username", username, "password", PASSWORD))))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // операции и их веса в смеси
+    private record Mix(String[] operations, int[] cumulative) {
+
+        static Mix parse(String value) {
+            List<String> operations = new ArrayList<>();
+            List<Integer> cumulative = new ArrayList<>();
+            int total = 0;
+
+            for (String entry : value.split(",")) {
+                String[] parts = entry.trim().split(":");
+                int weight = Integer.parseInt(parts[1].trim());
+                if (weight > 0) {
+                    total += weight;
+                    operations.add(parts[0].trim());
+                    cumulative.add(total);
+                }
+            }
+
+            return new Mix(
+                    operations.toArray(String[]::new),
+                    cumulative.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        String pick(SplittableRandom random) {
+            int roll = random.nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (roll < cumulative[i]) {
+                    return operations[i];
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+
+    private final class Client {
+
+        private final String username;
+        private final SplittableRandom random;
+        private final long measureFrom;
+        private final long measureTo;
+        private final LatencyReport report = new LatencyReport();
+
+        private String token;
+
+        private Client(String username, SplittableRandom random, long measureFrom, long measureTo) {
+            this.username = username;
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.measureTo = measureTo;
+        }
+
+        LatencyReport run(Mix mix) throws Exception {
+            token = authenticate(username);
+
+            while (System.nanoTime() < measureTo) {
+                String operation = mix.pick(random);
+                switch (operation) {
+                    case "login" -> login();
+                    case "rooms" -> send("rooms", get("/api/rooms"), 200);
+                    case "available" -> available();
+                    case "availability" -> availability();
+                    case "my-bookings" -> send("my-bookings", get("/api/users/me/bookings?size=20"), 200);
+                    case "booking" -> booking();
+                    case "dashboard" -> dashboard();
+                    default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+                }
+            }
+
+            return report;
+        }
+
+        private void login() throws Exception {
+            HttpResponse<String> response = send("login", loginRequest(username), 200);
+            if (response != null && response.statusCode() == 200) {
+                token = objectMapper.readTree(response.body()).get("token").asText();
+            }
+        }
+
+        private void available() throws Exception {
+            LocalDateTime start = futureSlot(30);
+            int minCapacity = 2 + random.nextInt(10);
+            send(
+                    "available",
+                    get("/api/rooms/available?minCapacity=" + minCapacity + "&startTime=" + start + "&endTime="
+                            + start.plusHours(1)),
+                    200);
+        }
+
+        private void availability() throws Exception {
+            LocalDateTime start = futureSlot(30);
+            send(
+                    "availability",
+                    get("/api/rooms/" + randomRoom() + "/availability?startTime=" + start + "&endTime="
+                            + start.plusHours(1)),
+                    200);
+        }
+
+        // далеко за пределами набора, чтобы конфликты были редкими; отказ из-за занятости - не ошибка
+        private void booking() throws Exception {
+            LocalDateTime start = futureSlot(700).plusDays(400);
+            String body = objectMapper.writeValueAsString(Map.of(
+                    "roomId", randomRoom(),
+                    "startTime", start.toString(),
+                    "endTime", start.plusMinutes(30 * (1 + random.nextInt(2))).toString()));
+
+            HttpResponse<String> created = send(
+                    "create-booking",
+                    authorized("/api/bookings")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    201,
+                    400);
+            if (created == null || created.statusCode() != 201) {
+                return;
+            }
+
+            long id = objectMapper.readTree(created.body()).get("id").asLong();
+            send(
+                    "cancel-booking",
+                    authorized("/api/bookings/" + id + "/cancel")
+                            .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                            .build(),
+                    200);
+        }
+
+        private void dashboard() throws Exception {
+            LocalDateTime end = LocalDate.now().atStartOfDay();
+            HttpRequest request = HttpRequest.newBuilder(
+                            uri("/api/admin/stats/dashboard?start=" + end.minusDays(30) + "&end=" + end))
+                    .header("Authorization", "Bearer " + adminToken)
+                    .GET()
+                    .build();
+            send("dashboard", request, 200);
+        }
+
+        // null - запрос не дошёл до ответа (ошибка уже учтена)
+        private HttpResponse<String> send(String endpoint, HttpRequest request, int... expected) {
+            long sentAt = System.nanoTime();
+            HttpResponse<String> response = null;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (Exception e) {
+                // таймаут или обрыв соединения - ошибка эндпоинта
+            }
+            long receivedAt = System.nanoTime();
+
+            if (sentAt >= measureFrom && receivedAt <= measureTo) {
+                int status = response == null ? -1 : response.statusCode();
+                if (Arrays.stream(expected).anyMatch(code -> code == status)) {
+                    report.record(endpoint, receivedAt - sentAt);
+                } else {
+                    report.error(endpoint);
+                }
+            }
+
+            return response;
+        }
+
+        private HttpRequest get(String path) {
+            return authorized(path).GET().build();
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30));
+        }
+
+        private long randomRoom() {
+            return roomIds.get(random.nextInt(roomIds.size()));
+        }
+
+        // начало получасового слота в рабочее время в ближайшие days дней
+        private LocalDateTime futureSlot(int days) {
+            return LocalDate.now()
+                    .plusDays(1 + random.nextInt(days))
+                    .atTime(8 + random.nextInt(10), 30 * random.nextInt(2));
+        }
+    }
+}
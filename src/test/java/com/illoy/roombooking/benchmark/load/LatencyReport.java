@@ -0,0 +1,116 @@
+package com.illoy.roombooking.benchmark.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/*
+   Распределения задержек по эндпоинтам (HdrHistogram, 3 значащих цифры, до минуты).
+   У каждого клиента свой отчёт без синхронизации, в конце они сливаются в один
+*/
+final class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    // пороги прогона: p99 по эндпоинтам, минимальная общая пропускная способность, доля ошибок
+    record Slo(Map<String, Double> p99Ms, double defaultP99Ms, double minThroughput, double maxErrorRate) {
+
+        double p99Ms(String endpoint) {
+            return p99Ms.getOrDefault(endpoint, defaultP99Ms);
+        }
+    }
+
+    private final Map<String, Histogram> histograms = new TreeMap<>();
+    private final Map<String, Long> errors = new TreeMap<>();
+
+    void record(String endpoint, long nanos) {
+        histograms
+                .computeIfAbsent(endpoint, name -> new Histogram(HIGHEST_TRACKABLE_NANOS, 3))
+                .recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+    }
+
+    void error(String endpoint) {
+        errors.merge(endpoint, 1L, Long::sum);
+    }
+
+    void merge(LatencyReport other) {
+        other.histograms.forEach((endpoint, histogram) -> histograms
+                .computeIfAbsent(endpoint, name -> new Histogram(HIGHEST_TRACKABLE_NANOS, 3))
+                .add(histogram));
+        other.errors.forEach((endpoint, count) -> errors.merge(endpoint, count, Long::sum));
+    }
+
+    long totalRequests() {
+        return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    List<String> violations(Slo slo, Duration measured) {
+        List<String> violations = new ArrayList<>();
+
+        histograms.forEach((endpoint, histogram) -> {
+            double p99 = histogram.getValueAtPercentile(99) / NANOS_PER_MS;
+            if (p99 > slo.p99Ms(endpoint)) {
+                violations.add(String.format("%s: p99 %.1f ms > %.1f ms", endpoint, p99, slo.p99Ms(endpoint)));
+            }
+        });
+
+        double throughput = totalRequests() / (double) measured.toSeconds();
+        if (throughput < slo.minThroughput()) {
+            violations.add(String.format("throughput %.1f req/s < %.1f req/s", throughput, slo.minThroughput()));
+        }
+
+        long all = totalRequests() + totalErrors();
+        double errorRate = all == 0 ? 1 : totalErrors() / (double) all;
+        if (errorRate > slo.maxErrorRate()) {
+            violations.add(String.format("error rate %.4f > %.4f", errorRate, slo.maxErrorRate()));
+        }
+
+        return violations;
+    }
+
+    void print(Duration measured, PrintStream out) {
+        out.printf(
+                "%-16s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+
+        histograms.forEach((endpoint, histogram) -> out.printf(
+                "%-16s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                endpoint,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / (double) measured.toSeconds(),
+                histogram.getValueAtPercentile(50) / NANOS_PER_MS,
+                histogram.getValueAtPercentile(90) / NANOS_PER_MS,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MS,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MS,
+                histogram.getMaxValue() / NANOS_PER_MS,
+                errors.getOrDefault(endpoint, 0L)));
+
+        out.printf(
+                "%-16s %9d %9.1f %59s %7d%n",
+                "total", totalRequests(), totalRequests() / (double) measured.toSeconds(), "", totalErrors());
+    }
+
+    // полные распределения в формате .hgrm (миллисекунды) - для сравнения прогонов и графиков
+    void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")), false, "UTF-8")) {
+                entry.getValue().outputPercentileDistribution(out, NANOS_PER_MS);
+            }
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package com.illoy.roombooking.dataset;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import javax.sql.DataSource;
+import lombok.Builder;
+import lombok.Value;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+
+/*
+   Детерминированный синтетический набор данных для нагрузочных тестов и бенчмарков:
+   пользователи, комнаты и непересекающиеся бронирования, загружаемые через COPY.
+
+   Одинаковые Spec (включая seed) дают одинаковые строки: случайность бронирований комнаты
+   за день берётся из отдельного генератора, посеянного от (seed, комната, день), поэтому
+   результат не зависит от порядка генерации. Распределение: рабочие часы 08:00-20:00 с пиками
+   утром и после обеда, будни плотнее выходных, часть пользователей бронирует заметно чаще.
+
+   Схема должна уже существовать (Liquibase). Кеши приложения (каталог комнат) о загрузке
+   не знают - после неё их нужно сбросить
+*/
+public final class SyntheticDataset {
+
+    @Value
+    @Builder
+    public static class Spec {
+        @Builder.Default
+        long seed = 42;
+
+        @Builder.Default
+        int users = 2_000;
+
+        @Builder.Default
+        int rooms = 200;
+
+        // даты по умолчанию фиксированы: иначе тот же Spec в другой день дал бы другие строки
+        @Builder.Default
+        LocalDate startDate = LocalDate.of(2026, 1, 5);
+
+        @Builder.Default
+        int days = 365;
+
+        // среднее число бронирований комнаты в будний день
+        @Builder.Default
+        double bookingsPerRoomDay = 8;
+
+        // до этой даты бронирования прошедшие (COMPLETED/CANCELLED)
+        @Builder.Default
+        LocalDate referenceDate = LocalDate.of(2026, 7, 4);
+
+        // префикс имён пользователей и комнат: по нему набор удаляется
+        @Builder.Default
+        String prefix = "ds-";
+
+        @Builder.Default
+        String password = "password";
+
+        public String username(int index) {
+            return prefix + "user" + index;
+        }
+
+        public String roomName(int index) {
+            return prefix + "room" + index;
+        }
+    }
+
+    @Value
+    public static class Summary {
+        int users;
+        int rooms;
+        long bookings;
+        Duration elapsed;
+    }
+
+    // сетка получасовых ячеек рабочего дня
+    private static final LocalTime DAY_START = LocalTime.of(8, 0);
+    private static final int CELL_MINUTES = 30;
+    private static final int CELLS = 24;
+
+    // вес начала бронирования по ячейкам: пики около 10:00 и 14:00
+    private static final double[] DIURNAL = {
+        0.4, 0.6, 1.0, 1.4, 1.5, 1.3, 1.0, 0.8, 0.6, 0.7, 1.0, 1.3,
+        1.4, 1.2, 1.0, 0.8, 0.7, 0.5, 0.4, 0.3, 0.2, 0.15, 0.1, 0.1
+    };
+
+    // длительность в ячейках (30-120 минут)
+    private static final double[] DURATION = {0.35, 0.4, 0.1, 0.15};
+
+    private static final double[] DIURNAL_CUMULATIVE = cumulative(DIURNAL);
+    private static final double[] DURATION_CUMULATIVE = cumulative(DURATION);
+
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+
+    private final Spec spec;
+
+    public SyntheticDataset(Spec spec) {
+        this.spec = spec;
+    }
+
+    /*
+       Загрузка в уже размеченную базу, например локальную:
+       ./mvnw test-compile exec:java -Dexec.classpathScope=test
+           -Dexec.mainClass=com.illoy.roombooking.dataset.SyntheticDataset
+           -Dexec.args="jdbc:postgresql://localhost:5432/roombooking user password"
+           -Ddataset.users=5000 -Ddataset.rooms=300 -Ddataset.days=365 -Ddataset.seed=42
+       -Ddataset.start-date/-Ddataset.reference-date сдвигают набор к нужным датам (например, к сегодняшней),
+       -Ddataset.clear=true сначала удаляет набор с тем же префиксом
+    */
+    public static void main(String[] args) throws SQLException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: SyntheticDataset <jdbc-url> <username> <password>");
+        }
+
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(args[0]);
+        dataSource.setUser(args[1]);
+        dataSource.setPassword(args[2]);
+
+        Spec defaults = Spec.builder().build();
+        SyntheticDataset dataset = new SyntheticDataset(Spec.builder()
+                .seed(Long.getLong("dataset.seed", defaults.seed))
+                .users(Integer.getInteger("dataset.users", defaults.users))
+                .rooms(Integer.getInteger("dataset.rooms", defaults.rooms))
+                .days(Integer.getInteger("dataset.days", defaults.days))
+                .startDate(LocalDate.parse(System.getProperty("dataset.start-date", defaults.startDate.toString())))
+                .referenceDate(LocalDate.parse(
+                        System.getProperty("dataset.reference-date", defaults.referenceDate.toString())))
+                .bookingsPerRoomDay(Double.parseDouble(System.getProperty(
+                        "dataset.bookings-per-room-day", Double.toString(defaults.bookingsPerRoomDay))))
+                .prefix(System.getProperty("dataset.prefix", defaults.prefix))
+                .build());
+
+        if (Boolean.getBoolean("dataset.clear")) {
+            dataset.clear(dataSource);
+        }
+
+        Summary summary = dataset.load(dataSource);
+        System.out.printf(
+                "Loaded %d users, %d rooms, %d bookings in %d ms%n",
+                summary.users, summary.rooms, summary.bookings, summary.elapsed.toMillis());
+    }
+
+    public Spec getSpec() {
+        return spec;
+    }
+
+    public Summary load(DataSource dataSource) throws SQLException {
+        long started = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                PGConnection pg = connection.unwrap(PGConnection.class);
+
+                copy(pg, "COPY users (username, email, password, role) FROM STDIN (FORMAT csv)", this::writeUsers);
+                copy(pg, "COPY rooms (name, description, capacity) FROM STDIN (FORMAT csv)", this::writeRooms);
+
+                long[] userIds = ids(connection, "SELECT id FROM users WHERE username LIKE ? ORDER BY id", spec.users);
+                long[] roomIds = ids(connection, "SELECT id FROM rooms WHERE name LIKE ? ORDER BY id", spec.rooms);
+
+                long bookings = copy(
+                        pg,
+                        "COPY bookings (start_time, end_time, status, room_id, user_id, created_at, updated_at) "
+                                + "FROM STDIN (FORMAT csv)",
+                        out -> writeBookings(userIds, roomIds, out));
+
+                connection.commit();
+
+                // планировщику нужна свежая статистика, иначе первые запросы бенчмарка пойдут мимо индексов
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ANALYZE users, rooms, bookings");
+                }
+                connection.commit();
+
+                return new Summary(spec.users, spec.rooms, bookings, Duration.ofNanos(System.nanoTime() - started));
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    // бронирования удаляются каскадом
+    public void clear(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement users = connection.prepareStatement("DELETE FROM users WHERE username LIKE ?");
+                PreparedStatement rooms = connection.prepareStatement("DELETE FROM rooms WHERE name LIKE ?")) {
+            users.setString(1, likePrefix());
+            users.executeUpdate();
+            rooms.setString(1, likePrefix());
+            rooms.executeUpdate();
+        }
+    }
+
+    long writeUsers(Appendable out) throws IOException {
+        // BCrypt намеренно медленный, поэтому хеш один на всех
+        String hash = PasswordEncoderFactories.createDelegatingPasswordEncoder().encode(spec.password);
+
+        for (int i = 0; i < spec.users; i++) {
+            String username = spec.username(i);
+            out.append(username)
+                    .append(',')
+                    .append(username)
+                    .append("@example.com,")
+                    .append(hash)
+                    .append(",ROLE_USER\n");
+        }
+        return spec.users;
+    }
+
+    long writeRooms(Appendable out) throws IOException {
+        SplittableRandom random = new SplittableRandom(spec.seed);
+
+        for (int i = 0; i < spec.rooms; i++) {
+            out.append(spec.roomName(i))
+                    .append(",Synthetic room ")
+                    .append(Integer.toString(i))
+                    .append(',')
+                    .append(Integer.toString(capacity(random)))
+                    .append('\n');
+        }
+        return spec.rooms;
+    }
+
+    // возвращает число строк; ids - в порядке индексов пользователей и комнат
+    long writeBookings(long[] userIds, long[] roomIds, Appendable out) throws IOException {
+        long rows = 0;
+        boolean[] busy = new boolean[CELLS];
+
+        for (int day = 0; day < spec.days; day++) {
+            LocalDate date = spec.startDate.plusDays(day);
+            double mean = spec.bookingsPerRoomDay * weekly(date.getDayOfWeek());
+            boolean past = date.isBefore(spec.referenceDate);
+
+            for (int room = 0; room < roomIds.length; room++) {
+                SplittableRandom random = new SplittableRandom(mix(spec.seed, room, day));
+                Arrays.fill(busy, false);
+
+                int wanted = Math.min(poisson(random, mean), CELLS);
+                for (int attempt = 0; wanted > 0 && attempt < wanted * 4; attempt++) {
+                    int start = pick(random, DIURNAL_CUMULATIVE);
+                    int length = pick(random, DURATION_CUMULATIVE) + 1;
+                    if (!free(busy, start, length)) {
+                        continue;
+                    }
+                    Arrays.fill(busy, start, start + length, true);
+                    wanted--;
+
+                    LocalDateTime from = date.atTime(DAY_START).plusMinutes((long) start * CELL_MINUTES);
+                    LocalDateTime to = from.plusMinutes((long) length * CELL_MINUTES);
+                    // бронируют за 0-14 дней, но не позже даты отсчёта; отмена - между созданием и началом
+                    LocalDateTime created = min(
+                            from.minusDays(random.nextInt(15)).minusMinutes(random.nextInt(600)),
+                            spec.referenceDate.atStartOfDay().minusMinutes(random.nextInt(600)));
+                    String status = status(random, past);
+                    LocalDateTime updated = "CANCELLED".equals(status)
+                            ? created.plusMinutes(random.nextLong(ChronoUnit.MINUTES.between(created, from) + 1))
+                            : created;
+
+                    out.append(from.toString())
+                            .append(',')
+                            .append(to.toString())
+                            .append(',')
+                            .append(status)
+                            .append(',')
+                            .append(Long.toString(roomIds[room]))
+                            .append(',')
+                            .append(Long.toString(userIds[user(random, userIds.length)]))
+                            .append(',')
+                            .append(created.toString())
+                            .append(',')
+                            .append(updated.toString())
+                            .append('\n');
+                    rows++;
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static double weekly(DayOfWeek dayOfWeek) {
+        return switch (dayOfWeek) {
+            case MONDAY, FRIDAY -> 0.85;
+            case TUESDAY, WEDNESDAY, THURSDAY -> 1.0;
+            case SATURDAY -> 0.2;
+            case SUNDAY -> 0.1;
+        };
+    }
+
+    private static String status(SplittableRandom random, boolean past) {
+        double roll = random.nextDouble();
+        if (roll < 0.12) {
+            return "CANCELLED";
+        }
+        if (past) {
+            return "COMPLETED";
+        }
+        return roll < 0.2 ? "PENDING" : "CONFIRMED";
+    }
+
+    // маленьких переговорок больше всего, залы на 50+ редки; CHECK в rooms - 1..100
+    private static int capacity(SplittableRandom random) {
+        double roll = random.nextDouble();
+        if (roll < 0.6) {
+            return 2 + random.nextInt(7);
+        }
+        if (roll < 0.9) {
+            return 10 + random.nextInt(21);
+        }
+        return 40 + random.nextInt(61);
+    }
+
+    // перекос к первым пользователям: небольшая часть делает основную массу бронирований
+    private static int user(SplittableRandom random, int users) {
+        return Math.min((int) (users * Math.pow(random.nextDouble(), 2.5)), users - 1);
+    }
+
+    private static int poisson(SplittableRandom random, double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static int pick(SplittableRandom random, double[] cumulative) {
+        double roll = random.nextDouble() * cumulative[cumulative.length - 1];
+        for (int i = 0; i < cumulative.length; i++) {
+            if (roll < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+
+    private static boolean free(boolean[] busy, int start, int length) {
+        if (start + length > busy.length) {
+            return false;
+        }
+        for (int i = start; i < start + length; i++) {
+            if (busy[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] result = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            result[i] = sum;
+        }
+        return result;
+    }
+
+    // SplitMix64: независимые потоки для разных (комната, день)
+    private static long mix(long seed, int room, int day) {
+        long z = seed + 0x9E3779B97F4A7C15L * (((long) room << 32) | day);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private String likePrefix() {
+        return spec.prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private long[] ids(Connection connection, String sql, int expected) throws SQLException {
+        long[] ids = new long[expected];
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, likePrefix());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int count = 0;
+                while (resultSet.next()) {
+                    if (count == expected) {
+                        throw new IllegalStateException("Prefix '" + spec.prefix + "' is already used by other rows");
+                    }
+                    ids[count++] = resultSet.getLong(1);
+                }
+                if (count != expected) {
+                    throw new IllegalStateException("Expected " + expected + " rows, found " + count);
+                }
+            }
+        }
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface Rows {
+        long write(Appendable out) throws IOException;
+    }
+
+    private static long copy(PGConnection connection, String sql, Rows rows) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(sql);
+        try (CopyBuffer buffer = new CopyBuffer(copyIn)) {
+            return rows.write(buffer);
+        } catch (IOException e) {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+            throw new SQLException("COPY failed: " + sql, e);
+        }
+    }
+
+    // строки копятся кусками и уходят в COPY по мере заполнения, весь набор в памяти не держится
+    private static final class CopyBuffer implements Appendable, AutoCloseable {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 256);
+
+        private CopyBuffer(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            buffer.append(csq);
+            flushIfFull();
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            buffer.append(csq, start, end);
+            flushIfFull();
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            buffer.append(c);
+            flushIfFull();
+            return this;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            try {
+                copyIn.endCopy();
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+
+        private void flushIfFull() throws IOException {
+            if (buffer.length() >= COPY_BUFFER_CHARS) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+            buffer.setLength(0);
+        }
+    }
+}
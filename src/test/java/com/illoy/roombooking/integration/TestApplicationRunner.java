@@ -1,6 +1,31 @@
 package com.illoy.roombooking.integration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.database.repository.RoomRepository;
+import com.illoy.roombooking.database.repository.UserRepository;
+import com.illoy.roombooking.integration.outbox.InMemoryOutboxSink;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
 
 @TestConfiguration
-public class TestApplicationRunner {}
+public class TestApplicationRunner {
+
+    // события outbox копятся в памяти, релей тесты запускают сами
+    @Bean
+    public InMemoryOutboxSink inMemoryOutboxSink() {
+        return new InMemoryOutboxSink();
+    }
+
+    @Bean
+    public TestFixtures testFixtures(
+            ObjectProvider<MockMvc> mockMvc,
+            UserRepository userRepository,
+            RoomRepository roomRepository,
+            PasswordEncoder passwordEncoder,
+            ObjectMapper objectMapper) {
+        return new TestFixtures(mockMvc, userRepository, roomRepository, passwordEncoder, objectMapper);
+    }
+}
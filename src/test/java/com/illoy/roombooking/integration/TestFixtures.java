@@ -0,0 +1,74 @@
+package com.illoy.roombooking.integration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.database.entity.Room;
+import com.illoy.roombooking.database.entity.User;
+import com.illoy.roombooking.database.entity.UserRole;
+import com.illoy.roombooking.database.repository.RoomRepository;
+import com.illoy.roombooking.database.repository.UserRepository;
+import com.illoy.roombooking.dto.request.LoginRequest;
+import com.illoy.roombooking.dto.response.JwtResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/*
+   Пользователь, комната и вход через API - общая подготовка для тестов, которым нужен живой JWT.
+   MockMvc берётся лениво: контекст без веб-окружения (ReplicaRoutingTest) его не создаёт
+*/
+@RequiredArgsConstructor
+public class TestFixtures {
+
+    public static final String PASSWORD = "123";
+
+    private final ObjectProvider<MockMvc> mockMvc;
+    private final UserRepository userRepository;
+    private final RoomRepository roomRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+
+    public User user(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(UserRole.ROLE_USER)
+                .isActive(true)
+                .build());
+    }
+
+    public Long room(String name) {
+        return roomRepository
+                .save(Room.builder().name(name).capacity(4).isActive(true).build())
+                .getId();
+    }
+
+    public MvcResult login(String username) throws Exception {
+        return mockMvc.getObject().perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(LoginRequest.builder()
+                                .username(username)
+                                .password(PASSWORD)
+                                .build())))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    public String token(MvcResult login) throws Exception {
+        return objectMapper
+                .readValue(login.getResponse().getContentAsString(), JwtResponse.class)
+                .getToken();
+    }
+
+    // новый пользователь и его токен
+    public String userToken(String username) throws Exception {
+        user(username);
+        return token(login(username));
+    }
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
@@ -405,6 +406,48 @@ public class BookingControllerTest extends IntegrationTestBase {
         assertThat(bookingResponse.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
     }
 
+    @Test
+    void findById_shouldReturnNotModifiedForMatchingETag() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/bookings/{bookingId}", NORMAL_BOOKING_ID)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+
+        MvcResult second = mockMvc.perform(get("/api/bookings/{bookingId}", NORMAL_BOOKING_ID)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        assertThat(second.getResponse().getContentAsString()).isEmpty();
+    }
+
+    @Test
+    void findById_shouldChangeETagAfterRoomRename() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/bookings/{bookingId}", NORMAL_BOOKING_ID)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        CANCELLING_ROOM.setName("Small Room C2");
+        roomRepository.saveAndFlush(CANCELLING_ROOM);
+
+        MvcResult second = mockMvc.perform(get("/api/bookings/{bookingId}", NORMAL_BOOKING_ID)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        BookingResponse bookingResponse =
+                objectMapper.readValue(second.getResponse().getContentAsString(), BookingResponse.class);
+        assertThat(bookingResponse.getRoomName()).isEqualTo("Small Room C2");
+    }
+
     @Test
     void findById_shouldReturnBookingResponseNotFound() throws Exception {
         MvcResult result = mockMvc.perform(get("/api/bookings/{bookingId}", -999L)
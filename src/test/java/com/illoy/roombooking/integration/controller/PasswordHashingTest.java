@@ -0,0 +1,127 @@
+package com.illoy.roombooking.integration.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.database.entity.User;
+import com.illoy.roombooking.database.entity.UserRole;
+import com.illoy.roombooking.database.repository.UserRepository;
+import com.illoy.roombooking.dto.request.LoginRequest;
+import com.illoy.roombooking.dto.request.RegisterRequest;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@TestPropertySource(
+        properties = {
+            "spring.application.password-hashing.threads=1",
+            "spring.application.password-hashing.queue-capacity=1"
+        })
+public class PasswordHashingTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExecutorService passwordHashingExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        userRepository.save(User.builder()
+                .username("hashing")
+                .email("hashing@gmail.com")
+                .password(passwordEncoder.encode("123"))
+                .role(UserRole.ROLE_USER)
+                .isActive(true)
+                .build());
+    }
+
+    @Test
+    void register_shouldHashPasswordOnceAndReturnToken() throws Exception {
+        // given
+        clearInvocations(passwordEncoder);
+
+        // when
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(RegisterRequest.builder()
+                                .username("hashing2")
+                                .email("hashing2@gmail.com")
+                                .password("password123")
+                                .build())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+
+        // then: только хеширование нового пароля, без повторной проверки через AuthenticationManager
+        verify(passwordEncoder, times(1)).encode(any());
+        verify(passwordEncoder, never()).matches(any(), anyString());
+        login("hashing2", "password123").andExpect(status().isOk());
+    }
+
+    @Test
+    void login_shouldReturn503_whenHashingQueueIsFull() throws Exception {
+        // given: единственный поток занят, единственное место в очереди тоже
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            passwordHashingExecutor.submit(() -> {
+                release.await();
+                return null;
+            });
+        }
+
+        // when, then
+        try {
+            login("hashing", "123")
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.error").value("SERVER_BUSY"));
+        } finally {
+            release.countDown();
+        }
+        login("hashing", "123").andExpect(status().isOk());
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    private ResultActions login(String username, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(LoginRequest.builder()
+                        .username(username)
+                        .password(password)
+                        .build())));
+    }
+}
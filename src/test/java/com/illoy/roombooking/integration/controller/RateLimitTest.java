@@ -0,0 +1,213 @@
+package com.illoy.roombooking.integration.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.database.entity.Room;
+import com.illoy.roombooking.database.entity.User;
+import com.illoy.roombooking.database.entity.UserRole;
+import com.illoy.roombooking.database.repository.RoomRepository;
+import com.illoy.roombooking.database.repository.UserRepository;
+import com.illoy.roombooking.dto.request.BookingCreateRequest;
+import com.illoy.roombooking.dto.request.LoginRequest;
+import com.illoy.roombooking.dto.response.JwtResponse;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import com.illoy.roombooking.service.ratelimit.JdbcRateLimiter;
+import com.illoy.roombooking.service.ratelimit.RateLimitRule;
+import com.netflix.concurrency.limits.Limiter;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+@TestPropertySource(
+        properties = {
+            "spring.application.rate-limit.enabled=true",
+            "spring.application.rate-limit.auth.capacity=3",
+            "spring.application.rate-limit.auth.refill-per-second=0.001",
+            "spring.application.rate-limit.booking.capacity=2",
+            "spring.application.rate-limit.booking.refill-per-second=0.001"
+        })
+public class RateLimitTest extends IntegrationTestBase {
+
+    // корзины живут дольше теста: у каждого входа свой адрес
+    private static final AtomicInteger ADDRESSES = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SimpleLimiter<Void> authConcurrencyLimiter;
+
+    private Long roomId;
+
+    @BeforeEach
+    void setup() {
+        userRepository.saveAll(List.of(user("ratelimit1"), user("ratelimit2")));
+        roomId = roomRepository
+                .save(Room.builder()
+                        .name("Rate Limit Room")
+                        .capacity(4)
+                        .isActive(true)
+                        .build())
+                .getId();
+    }
+
+    @Test
+    void login_shouldReturn429_afterBurstFromSameAddress() throws Exception {
+        // given
+        String address = nextAddress();
+        for (int i = 0; i < 3; i++) {
+            login("ratelimit1", "wrong", address).andExpect(status().isUnauthorized());
+        }
+
+        // when, then
+        login("ratelimit1", "123", address)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.error").value("TOO_MANY_REQUESTS"));
+        login("ratelimit1", "123", nextAddress()).andExpect(status().isOk());
+    }
+
+    @Test
+    void createBooking_shouldLimitPerUser() throws Exception {
+        // given
+        String first = token("ratelimit1");
+        String second = token("ratelimit2");
+        LocalDateTime start = LocalDateTime.now()
+                .plusDays(3)
+                .withHour(9)
+                .withMinute(0)
+                .withSecond(0)
+                .withNano(0);
+
+        // when
+        createBooking(first, start).andExpect(status().isCreated());
+        createBooking(first, start.plusHours(1)).andExpect(status().isCreated());
+
+        // then
+        createBooking(first, start.plusHours(2)).andExpect(status().isTooManyRequests());
+        createBooking(second, start.plusHours(3)).andExpect(status().isCreated());
+    }
+
+    @Test
+    void login_shouldReturn503_whenConcurrencyLimitReached() throws Exception {
+        // given
+        List<Limiter.Listener> held = new ArrayList<>();
+        for (Optional<Limiter.Listener> listener = authConcurrencyLimiter.acquire(null);
+                listener.isPresent();
+                listener = authConcurrencyLimiter.acquire(null)) {
+            held.add(listener.get());
+        }
+
+        // when, then
+        try {
+            login("ratelimit1", "123", nextAddress())
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.error").value("SERVER_BUSY"));
+        } finally {
+            held.forEach(Limiter.Listener::onIgnore);
+        }
+        login("ratelimit1", "123", nextAddress()).andExpect(status().isOk());
+    }
+
+    @Test
+    void jdbcRateLimiter_shouldShareBucketsThroughTable() {
+        // given
+        JdbcRateLimiter limiter = new JdbcRateLimiter(jdbcTemplate);
+        RateLimitRule rule = new RateLimitRule("test", 2, 0.5);
+
+        // when
+        long first = limiter.tryAcquire(rule, "ip:10.9.0.1");
+        long second = limiter.tryAcquire(rule, "ip:10.9.0.1");
+        long third = limiter.tryAcquire(rule, "ip:10.9.0.1");
+        long other = limiter.tryAcquire(rule, "ip:10.9.0.2");
+
+        // then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isEqualTo(2000);
+        assertThat(other).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                        "SELECT tokens FROM rate_limit_buckets WHERE bucket_key = ?", Double.class, "test:ip:10.9.0.1"))
+                .isLessThan(1);
+    }
+
+    private ResultActions login(String username, String password, String address) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(LoginRequest.builder()
+                        .username(username)
+                        .password(password)
+                        .build())));
+    }
+
+    private String token(String username) throws Exception {
+        MvcResult result =
+                login(username, "123", nextAddress()).andExpect(status().isOk()).andReturn();
+        return objectMapper
+                .readValue(result.getResponse().getContentAsString(), JwtResponse.class)
+                .getToken();
+    }
+
+    private ResultActions createBooking(String token, LocalDateTime start) throws Exception {
+        return mockMvc.perform(post("/api/bookings")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(BookingCreateRequest.builder()
+                        .roomId(roomId)
+                        .startTime(start)
+                        .endTime(start.plusHours(1))
+                        .build())));
+    }
+
+    private User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password(passwordEncoder.encode("123"))
+                .role(UserRole.ROLE_USER)
+                .isActive(true)
+                .build();
+    }
+
+    private static String nextAddress() {
+        return "10.0.0." + ADDRESSES.incrementAndGet();
+    }
+}
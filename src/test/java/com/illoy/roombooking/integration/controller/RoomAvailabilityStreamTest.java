@@ -0,0 +1,244 @@
+package com.illoy.roombooking.integration.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.database.entity.Room;
+import com.illoy.roombooking.database.entity.User;
+import com.illoy.roombooking.database.entity.UserRole;
+import com.illoy.roombooking.database.repository.RoomRepository;
+import com.illoy.roombooking.database.repository.UserRepository;
+import com.illoy.roombooking.dto.request.BookingCreateRequest;
+import com.illoy.roombooking.dto.request.LoginRequest;
+import com.illoy.roombooking.dto.response.JwtResponse;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import com.illoy.roombooking.service.availability.AvailabilityStreamRegistry;
+import com.illoy.roombooking.service.catalog.RoomCatalog;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+// бронирования должны закоммититься, поэтому тестовой транзакции нет и данные чистятся вручную
+public class RoomAvailabilityStreamTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private AvailabilityStreamRegistry availabilityStreamRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    // открытые тестом потоки: контекст общий, подписчики не должны пережить тест
+    private final List<MvcResult> streams = new ArrayList<>();
+
+    private String jwtToken;
+    private Long roomId;
+    private Long otherRoomId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestTransaction.end();
+
+        userRepository.save(User.builder()
+                .username("streamer")
+                .email("streamer@test.com")
+                .password(passwordEncoder.encode("123"))
+                .role(UserRole.ROLE_USER)
+                .isActive(true)
+                .build());
+
+        roomId = roomRepository
+                .save(Room.builder().name("Stream Room").capacity(6).build())
+                .getId();
+        otherRoomId = roomRepository
+                .save(Room.builder().name("Other Stream Room").capacity(6).build())
+                .getId();
+
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(LoginRequest.builder()
+                                .username("streamer")
+                                .password("123")
+                                .build())))
+                .andExpect(status().isOk())
+                .andReturn();
+        jwtToken = objectMapper
+                .readValue(result.getResponse().getContentAsString(), JwtResponse.class)
+                .getToken();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // как при уходе клиента: завершение async-запроса снимает подписчика через колбэк эмиттера
+        streams.forEach(stream -> stream.getRequest().getAsyncContext().complete());
+        streams.clear();
+        jdbcTemplate.update("DELETE FROM booking_outbox WHERE room_id IN (?, ?)", roomId, otherRoomId);
+        jdbcTemplate.update("DELETE FROM bookings WHERE room_id IN (?, ?)", roomId, otherRoomId);
+        jdbcTemplate.update("DELETE FROM rooms WHERE id IN (?, ?)", roomId, otherRoomId);
+        jdbcTemplate.update("DELETE FROM users WHERE username = 'streamer'");
+        roomCatalog.invalidate();
+    }
+
+    @Test
+    void roomStream_shouldPushDeltasForItsRoomOnly() throws Exception {
+        // given
+        MvcResult stream = subscribe("/api/rooms/{roomId}/availability/stream", roomId);
+
+        // when
+        book(otherRoomId, 10);
+        Long bookingId = book(roomId, 12);
+
+        // then
+        await(() -> content(stream).contains("\"bookingId\":" + bookingId));
+        assertThat(content(stream)).contains("event:delta").contains("\"busy\":true");
+        assertThat(content(stream)).doesNotContain("\"roomId\":" + otherRoomId);
+    }
+
+    @Test
+    void allRoomsStream_shouldPushReleasedSlotAfterCancel() throws Exception {
+        // given
+        MvcResult stream = subscribe("/api/rooms/availability/stream");
+        Long bookingId = book(roomId, 14);
+        await(() -> content(stream).contains("\"busy\":true"));
+
+        // when
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", bookingId)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+
+        // then
+        await(() -> content(stream).contains("\"busy\":false"));
+        assertThat(content(stream)).contains("\"status\":\"CANCELLED\"");
+    }
+
+    @Test
+    void idleStream_shouldReceiveHeartbeat() throws Exception {
+        // given
+        MvcResult stream = subscribe("/api/rooms/{roomId}/availability/stream", roomId);
+
+        // when
+        availabilityStreamRegistry.heartbeat();
+
+        // then
+        await(() -> content(stream).contains(":heartbeat"));
+    }
+
+    @Test
+    void shutdown_shouldCompleteOpenStreams() throws Exception {
+        // given
+        MvcResult allRooms = subscribe("/api/rooms/availability/stream");
+        MvcResult room = subscribe("/api/rooms/{roomId}/availability/stream", roomId);
+        assertThat(subscribers()).isGreaterThanOrEqualTo(2);
+
+        // when: @PreDestroy, как при остановке контекста; реестр после этого остаётся рабочим
+        applicationContext.getAutowireCapableBeanFactory().destroyBean(availabilityStreamRegistry);
+
+        // then: эмиттеры завершены сервером, getAsyncResult дождался диспетчеризации
+        allRooms.getAsyncResult(5_000);
+        room.getAsyncResult(5_000);
+        assertThat(subscribers()).isZero();
+    }
+
+    @Test
+    void roomStream_shouldReturn404_whenRoomNotFound() throws Exception {
+        mockMvc.perform(get("/api/rooms/{roomId}/availability/stream", -999L)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+
+    private MvcResult subscribe(String path, Object... variables) throws Exception {
+        MvcResult stream = mockMvc.perform(get(path, variables)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        streams.add(stream);
+        return stream;
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("availability.stream.subscribers").gauge().value();
+    }
+
+    private Long book(Long room, int hour) throws Exception {
+        LocalDateTime start = LocalDateTime.now()
+                .plusDays(1)
+                .withHour(hour)
+                .withMinute(0)
+                .withSecond(0)
+                .withNano(0);
+        BookingCreateRequest request = BookingCreateRequest.builder()
+                .roomId(room)
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/api/bookings")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.id")).longValue();
+    }
+
+    private static String content(MvcResult stream) {
+        try {
+            return stream.getResponse().getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis())
+                    .as("condition not met in time")
+                    .isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
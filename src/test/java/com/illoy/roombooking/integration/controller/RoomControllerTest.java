@@ -9,6 +9,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.illoy.roombooking.database.entity.*;
 import com.illoy.roombooking.database.repository.BookingRepository;
 import com.illoy.roombooking.database.repository.RoomRepository;
@@ -26,6 +28,7 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
@@ -130,6 +133,27 @@ public class RoomControllerTest extends IntegrationTestBase {
         assertThat(rooms).extracting(RoomResponse::getName).doesNotContain("B Room");
     }
 
+    @Test
+    void findAllActiveList_shouldReturnNotModifiedForMatchingETag() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/rooms").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"rooms-2-");
+        assertThat(first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)).isNotBlank();
+
+        mockMvc.perform(get("/api/rooms")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/rooms/{roomId}", ACTIVE_ROOM_ID)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void findAllActivePage_shouldReturnPagedActiveRooms() throws Exception {
         MvcResult result = mockMvc.perform(get("/api/rooms/page")
@@ -174,6 +198,32 @@ public class RoomControllerTest extends IntegrationTestBase {
         assertThat(rooms).allMatch(RoomResponse::isActive);
     }
 
+    @Test
+    void findAvailable_shouldCombineCapacityRangeWithAvailability() throws Exception {
+        MvcResult byCapacity = mockMvc.perform(get("/api/rooms/available")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("minCapacity", "5")
+                        .param("maxCapacity", "15"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        MvcResult freeRooms = mockMvc.perform(get("/api/rooms/available")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("minCapacity", "5")
+                        .param("startTime", "2026-02-10T10:30:00")
+                        .param("endTime", "2026-02-10T11:30:00"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<RoomResponse> inRange =
+                objectMapper.readValue(byCapacity.getResponse().getContentAsString(), new TypeReference<>() {});
+        List<RoomResponse> free =
+                objectMapper.readValue(freeRooms.getResponse().getContentAsString(), new TypeReference<>() {});
+
+        assertThat(inRange).extracting(RoomResponse::getName).containsExactly("A Room");
+        assertThat(free).extracting(RoomResponse::getName).containsExactly("C Room");
+    }
+
     @Test
     void findActiveBySearchTerm_shouldReturnRoomsContainingSearchTermIgnoringCase() throws Exception {
 
@@ -287,6 +337,125 @@ public class RoomControllerTest extends IntegrationTestBase {
         assertThat(response.getBusySlots()).isEmpty();
     }
 
+    @Test
+    void checkAvailability_shouldReturnCbor_whenRequested() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/api/rooms/{roomId}/availability", AVAILABLE_ROOM_ID)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .param("startTime", "2026-02-12T12:00:00")
+                        .param("endTime", "2026-02-12T13:00:00"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(mvcResult.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+
+        RoomAvailabilityResponse response = objectMapper
+                .copyWith(new CBORFactory())
+                .readValue(mvcResult.getResponse().getContentAsByteArray(), RoomAvailabilityResponse.class);
+
+        assertTrue(response.isAvailableForRequestedTime());
+        assertEquals(LocalDate.of(2026, 2, 12), response.getDate());
+    }
+
+    @Test
+    void findAllActiveList_shouldReturnSmile_whenPreferredOverJson() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/api/rooms")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(mvcResult.getResponse().getContentType()).isEqualTo("application/x-jackson-smile");
+
+        List<RoomResponse> rooms = objectMapper
+                .copyWith(new SmileFactory())
+                .readValue(mvcResult.getResponse().getContentAsByteArray(), new TypeReference<>() {});
+
+        assertThat(rooms).extracting(RoomResponse::getName).containsExactlyInAnyOrder("A Room", "C Room");
+    }
+
+    @Test
+    void findActiveById_shouldNotMatchETagAcrossFormats() throws Exception {
+        MvcResult json = mockMvc.perform(get("/api/rooms/{roomId}", ACTIVE_ROOM_ID)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String eTag = json.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(json.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+
+        MvcResult cbor = mockMvc.perform(get("/api/rooms/{roomId}", ACTIVE_ROOM_ID)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(cbor.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+        assertThat(cbor.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+
+        mockMvc.perform(get("/api/rooms/{roomId}", ACTIVE_ROOM_ID)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, cbor.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getRoomCalendar_shouldReturnActiveBookingsWithoutOwner() throws Exception {
+        User user = userRepository.findByUsername("john").orElseThrow();
+        Room room = roomRepository.findById(AVAILABLE_ROOM_ID).orElseThrow();
+        LocalDateTime start = LocalDateTime.now()
+                .plusDays(1)
+                .withHour(10)
+                .withMinute(0)
+                .withSecond(0)
+                .withNano(0);
+
+        Booking confirmed = bookingRepository.save(Booking.builder()
+                .room(room)
+                .user(user)
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .status(BookingStatus.CONFIRMED)
+                .build());
+        Booking cancelled = bookingRepository.save(Booking.builder()
+                .room(room)
+                .user(user)
+                .startTime(start.plusHours(2))
+                .endTime(start.plusHours(3))
+                .status(BookingStatus.CANCELLED)
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/rooms/{roomId}/calendar.ics", AVAILABLE_ROOM_ID)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(result.getResponse().getContentType()).startsWith("text/calendar");
+        assertThat(body)
+                .startsWith("BEGIN:VCALENDAR\r\n")
+                .endsWith("END:VCALENDAR\r\n")
+                .contains("X-WR-CALNAME:A Room\r\n")
+                .contains("UID:booking-" + confirmed.getId() + "@roombooking\r\n")
+                .contains("SUMMARY:Booked\r\n")
+                .doesNotContain("UID:booking-" + cancelled.getId() + "@")
+                .doesNotContain("john");
+
+        mockMvc.perform(get("/api/rooms/{roomId}/calendar.ics", AVAILABLE_ROOM_ID)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, result.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getRoomCalendar_shouldReturn404_whenRoomIsInactive() throws Exception {
+        mockMvc.perform(get("/api/rooms/{roomId}/calendar.ics", INACTIVE_ROOM_ID)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void checkAvailability_shouldReturn404_whenRoomNotFound() throws Exception {
         MvcResult result = mockMvc.perform(get("/api/rooms/{roomId}/availability", -999L)
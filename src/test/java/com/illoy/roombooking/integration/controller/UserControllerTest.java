@@ -19,6 +19,7 @@ import com.illoy.roombooking.dto.response.JwtResponse;
 import com.illoy.roombooking.dto.response.UserResponse;
 import com.illoy.roombooking.exception.ErrorResponse;
 import com.illoy.roombooking.integration.IntegrationTestBase;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -26,6 +27,7 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
@@ -232,4 +234,49 @@ public class UserControllerTest extends IntegrationTestBase {
                 .allMatch(
                         b -> !b.getStartTime().isAfter(LocalDate.of(2026, 2, 20).atTime(LocalTime.MAX)));
     }
+
+    @Test
+    void getUserBookingsCalendar_shouldReturnBookingsInWindow() throws Exception {
+        User user = userRepository.findById(userId).orElseThrow();
+        Room room = roomRepository.save(Room.builder()
+                .name("Room; \"Big\", 2nd floor")
+                .capacity(6)
+                .isActive(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now()
+                .plusDays(2)
+                .withHour(9)
+                .withMinute(0)
+                .withSecond(0)
+                .withNano(0);
+
+        Booking upcoming = bookingRepository.save(Booking.builder()
+                .room(room)
+                .user(user)
+                .startTime(start)
+                .endTime(start.plusMinutes(90))
+                .status(BookingStatus.PENDING)
+                .build());
+
+        MvcResult result = mockMvc.perform(
+                        get("/api/users/me/bookings.ics").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(result.getResponse().getContentType()).startsWith("text/calendar");
+        assertThat(body.split("\r\n")).allMatch(line -> line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        assertThat(body)
+                .startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n")
+                .contains("UID:booking-" + upcoming.getId() + "@roombooking\r\n")
+                .contains("STATUS:TENTATIVE\r\n")
+                .contains("LOCATION:Room\\; \"Big\"\\, 2nd floor\r\n")
+                // февральские бронирования старше окна в 90 дней
+                .containsOnlyOnce("BEGIN:VEVENT");
+
+        mockMvc.perform(get("/api/users/me/bookings.ics")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, result.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
 }
@@ -0,0 +1,171 @@
+package com.illoy.roombooking.integration.controller.admin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.database.entity.User;
+import com.illoy.roombooking.database.entity.UserRole;
+import com.illoy.roombooking.database.query.SlowQueryLog;
+import com.illoy.roombooking.database.repository.UserRepository;
+import com.illoy.roombooking.dto.request.LoginRequest;
+import com.illoy.roombooking.dto.response.JwtResponse;
+import com.illoy.roombooking.dto.response.QueryShapeResponse;
+import com.illoy.roombooking.dto.response.QueryStatisticsResponse;
+import com.illoy.roombooking.dto.response.SlowQueryResponse;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+public class AdminQueryControllerTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    private String adminToken;
+    private String userToken;
+
+    @BeforeEach
+    void setup() throws Exception {
+        userRepository.saveAll(List.of(
+                User.builder()
+                        .username("queryadmin")
+                        .email("queryadmin@gmail.com")
+                        .password(passwordEncoder.encode("123"))
+                        .role(UserRole.ROLE_ADMIN)
+                        .isActive(true)
+                        .build(),
+                User.builder()
+                        .username("queryuser")
+                        .email("queryuser@gmail.com")
+                        .password(passwordEncoder.encode("123"))
+                        .role(UserRole.ROLE_USER)
+                        .isActive(true)
+                        .build()));
+
+        adminToken = login("queryadmin");
+        userToken = login("queryuser");
+        mockMvc.perform(delete("/api/admin/queries").header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+                .andExpect(status().isNoContent());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(slowQueryLog, "thresholdMs", 200L);
+        slowQueryLog.clear();
+    }
+
+    @Test
+    void findQueryStatistics_shouldGroupStatementsByShape() throws Exception {
+        // given
+        login("queryuser");
+        login("queryadmin");
+
+        // when
+        QueryStatisticsResponse response = statistics();
+
+        // then
+        QueryShapeResponse usersByName = response.getShapes().stream()
+                .filter(shape -> shape.getShape().contains("from users")
+                        && shape.getShape().contains("username=?"))
+                .findFirst()
+                .orElseThrow();
+        // два входа и загрузка администратора по токену запроса статистики - одна форма
+        assertThat(usersByName.getCount()).isGreaterThanOrEqualTo(3);
+        assertThat(usersByName.getHistogram().values().stream()
+                        .mapToLong(Long::longValue)
+                        .sum())
+                .isEqualTo(usersByName.getCount());
+        assertThat(usersByName.getP99Ms()).isLessThanOrEqualTo(usersByName.getMaxMs());
+        assertThat(response.getSlowQueries()).isEmpty();
+    }
+
+    @Test
+    void findQueryStatistics_shouldRecordSlowQueriesWithoutParameterValues() throws Exception {
+        // given
+        ReflectionTestUtils.setField(slowQueryLog, "thresholdMs", 0L);
+        login("queryuser");
+
+        // when
+        MvcResult result = mockMvc.perform(
+                        get("/api/admin/queries").header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // then
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).doesNotContain("queryuser");
+
+        QueryStatisticsResponse response = objectMapper.readValue(body, QueryStatisticsResponse.class);
+        SlowQueryResponse lookup = response.getSlowQueries().stream()
+                .filter(query -> query.getShape().contains("from users"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(lookup.getParameters()).containsExactly("String");
+        assertThat(lookup.getRequest()).startsWith("GET /api/admin/queries");
+    }
+
+    @Test
+    void resetQueryStatistics_shouldClearShapes() throws Exception {
+        // given
+        login("queryuser");
+
+        // when
+        mockMvc.perform(delete("/api/admin/queries").header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+                .andExpect(status().isNoContent());
+
+        // then
+        assertThat(statistics().getShapes())
+                .noneMatch(shape -> shape.getShape().contains("from users") && shape.getCount() > 1);
+    }
+
+    @Test
+    void findQueryStatistics_shouldReturn403_forUser() throws Exception {
+        mockMvc.perform(get("/api/admin/queries").header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+    }
+
+    private QueryStatisticsResponse statistics() throws Exception {
+        MvcResult result = mockMvc.perform(
+                        get("/api/admin/queries").header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), QueryStatisticsResponse.class);
+    }
+
+    private String login(String username) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(LoginRequest.builder()
+                                .username(username)
+                                .password("123")
+                                .build())))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper
+                .readValue(result.getResponse().getContentAsString(), JwtResponse.class)
+                .getToken();
+    }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
@@ -198,6 +199,40 @@ public class AdminRoomControllerTest extends IntegrationTestBase {
         assertTrue(room.isActive());
     }
 
+    @Test
+    void findById_shouldChangeETagAfterUpdate() throws Exception {
+        MvcResult before = mockMvc.perform(
+                        get("/api/admin/rooms/{roomId}", ROOM_ID).header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String eTag = before.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/admin/rooms/{roomId}", ROOM_ID)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        RoomCreateEditRequest request = RoomCreateEditRequest.builder()
+                .name("Meeting Room B-2")
+                .capacity(12)
+                .build();
+
+        mockMvc.perform(put("/api/admin/rooms/{roomId}", ROOM_ID)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        MvcResult after = mockMvc.perform(get("/api/admin/rooms/{roomId}", ROOM_ID)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(after.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+    }
+
     @Test
     void findById_shouldReturnRoomNotFoundException() throws Exception {
         MvcResult result = mockMvc.perform(get("/api/admin/rooms/{roomId}", -999L)
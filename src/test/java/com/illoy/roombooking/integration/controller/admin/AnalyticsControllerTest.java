@@ -12,6 +12,7 @@ import com.illoy.roombooking.database.repository.BookingRepository;
 import com.illoy.roombooking.database.repository.RoomRepository;
 import com.illoy.roombooking.database.repository.UserRepository;
 import com.illoy.roombooking.dto.request.LoginRequest;
+import com.illoy.roombooking.dto.response.ApproximateTopResponse;
 import com.illoy.roombooking.dto.response.JwtResponse;
 import com.illoy.roombooking.integration.IntegrationTestBase;
 import java.time.LocalDateTime;
@@ -299,4 +300,51 @@ public class AnalyticsControllerTest extends IntegrationTestBase {
         assertEquals(3, responseMap.get("Wednesday"));
         assertEquals(1, responseMap.get("Friday"));
     }
+
+    @Test
+    void getApproxPopularRooms() throws Exception {
+        LocalDateTime startTime = LocalDateTime.of(2100, 1, 20, 11, 0);
+        LocalDateTime endTime = LocalDateTime.of(2100, 1, 23, 12, 0);
+
+        MvcResult result = mockMvc.perform(get("/api/admin/stats/approx/popular-rooms")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("start", String.valueOf(startTime))
+                        .param("end", String.valueOf(endTime))
+                        .param("limit", String.valueOf(2)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ApproximateTopResponse response =
+                objectMapper.readValue(result.getResponse().getContentAsString(), ApproximateTopResponse.class);
+
+        assertEquals(2, response.getCounts().size());
+        assertEquals(2, response.getCounts().get("Small Room C"));
+        assertEquals(1, response.getCounts().get("Conference Room A"));
+        assertEquals(3, response.getTotalBookings());
+    }
+
+    @Test
+    void getDashboard() throws Exception {
+        LocalDateTime startTime = LocalDateTime.of(2100, 1, 20, 11, 0);
+        LocalDateTime endTime = LocalDateTime.of(2100, 1, 23, 12, 0);
+
+        MvcResult result = mockMvc.perform(get("/api/admin/stats/dashboard")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("start", String.valueOf(startTime))
+                        .param("end", String.valueOf(endTime)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // секции выполняются в отдельных транзакциях и не видят незакоммиченные данные теста,
+        // поэтому проверяется только состав и статусы
+        Map<String, Object> response =
+                objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+        Map<String, Map<String, Object>> sections =
+                objectMapper.convertValue(response.get("sections"), new TypeReference<>() {});
+
+        assertEquals(7, sections.size());
+        sections.values().forEach(section -> assertEquals("OK", section.get("status")));
+    }
 }
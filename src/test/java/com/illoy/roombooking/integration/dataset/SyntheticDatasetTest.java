@@ -0,0 +1,133 @@
+package com.illoy.roombooking.integration.dataset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.illoy.roombooking.dataset.SyntheticDataset;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import com.illoy.roombooking.service.catalog.RoomCatalog;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.transaction.TestTransaction;
+
+// COPY идёт через отдельное соединение, поэтому тестовой транзакции нет и набор удаляется вручную
+public class SyntheticDatasetTest extends IntegrationTestBase {
+
+    private static final String DATASET_BOOKINGS =
+            "FROM bookings b JOIN rooms r ON r.id = b.room_id WHERE r.name LIKE 'dstest-%'";
+
+    private static final SyntheticDataset.Spec SPEC = SyntheticDataset.Spec.builder()
+            .seed(7)
+            .users(40)
+            .rooms(12)
+            .startDate(LocalDate.of(2026, 1, 5))
+            .days(28)
+            .referenceDate(LocalDate.of(2026, 1, 19))
+            .prefix("dstest-")
+            .build();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private final SyntheticDataset dataset = new SyntheticDataset(SPEC);
+
+    @BeforeEach
+    void setUp() {
+        TestTransaction.end();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dataset.clear(dataSource);
+        roomCatalog.invalidate();
+    }
+
+    @Test
+    void load_shouldBeDeterministicForSameSpec() throws Exception {
+        // when
+        SyntheticDataset.Summary first = dataset.load(dataSource);
+        List<Map<String, Object>> firstRows = bookings();
+        dataset.clear(dataSource);
+        SyntheticDataset.Summary second = dataset.load(dataSource);
+
+        // then
+        assertThat(first.getBookings()).isPositive().isEqualTo(second.getBookings());
+        assertThat(bookings()).isEqualTo(firstRows);
+    }
+
+    @Test
+    void load_shouldNotOverlapActiveBookingsInRoom() throws Exception {
+        // when
+        SyntheticDataset.Summary summary = dataset.load(dataSource);
+
+        // then
+        assertThat(count("SELECT COUNT(*) " + DATASET_BOOKINGS)).isEqualTo(summary.getBookings());
+        assertThat(count("SELECT COUNT(*) FROM bookings a JOIN bookings b "
+                        + "ON a.room_id = b.room_id AND a.id < b.id "
+                        + "AND a.start_time < b.end_time AND b.start_time < a.end_time "
+                        + "JOIN rooms r ON r.id = a.room_id "
+                        + "WHERE r.name LIKE 'dstest-%' "
+                        + "AND a.status IN ('CONFIRMED', 'PENDING') AND b.status IN ('CONFIRMED', 'PENDING')"))
+                .isZero();
+    }
+
+    @Test
+    void load_shouldFollowWeeklyPatternAndReferenceDate() throws Exception {
+        // when
+        dataset.load(dataSource);
+
+        // then
+        long weekdays = count("SELECT COUNT(*) " + DATASET_BOOKINGS + " AND EXTRACT(ISODOW FROM b.start_time) <= 5");
+        long weekends = count("SELECT COUNT(*) " + DATASET_BOOKINGS + " AND EXTRACT(ISODOW FROM b.start_time) > 5");
+        // 20 будних дней против 8 выходных, при этом выходные в разы реже
+        assertThat(weekdays).isGreaterThan(weekends * 10);
+
+        assertThat(count("SELECT COUNT(*) " + DATASET_BOOKINGS + " AND b.start_time < '2026-01-19' "
+                        + "AND b.status NOT IN ('COMPLETED', 'CANCELLED')"))
+                .isZero();
+        assertThat(count("SELECT COUNT(*) " + DATASET_BOOKINGS
+                        + " AND b.start_time >= '2026-01-19' AND b.status = 'COMPLETED'"))
+                .isZero();
+    }
+
+    @Test
+    void load_shouldCreateUsersThatCanLogIn() throws Exception {
+        // when
+        dataset.load(dataSource);
+
+        // then
+        String hash = jdbcTemplate.queryForObject(
+                "SELECT password FROM users WHERE username = ?", String.class, SPEC.username(0));
+        assertThat(passwordEncoder.matches(SPEC.getPassword(), hash)).isTrue();
+        assertThat(count("SELECT COUNT(*) FROM users WHERE username LIKE 'dstest-%'"))
+                .isEqualTo(SPEC.getUsers());
+    }
+
+    // без id: при повторной загрузке последовательности выдают новые
+    private List<Map<String, Object>> bookings() {
+        return jdbcTemplate.queryForList("SELECT r.name AS room, u.username, b.start_time, b.end_time, b.status, "
+                + "b.created_at, b.updated_at "
+                + "FROM bookings b JOIN rooms r ON r.id = b.room_id JOIN users u ON u.id = b.user_id "
+                + "WHERE r.name LIKE 'dstest-%' ORDER BY r.name, b.start_time");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,110 @@
+package com.illoy.roombooking.integration.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.dto.request.BookingCreateRequest;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import com.illoy.roombooking.integration.TestFixtures;
+import com.illoy.roombooking.service.catalog.RoomCatalog;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+// created и cancelled считаются после коммита, поэтому тестовой транзакции нет и данные чистятся вручную
+public class BookingOutcomeMetricsTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private String jwtToken;
+    private Long roomId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestTransaction.end();
+
+        jwtToken = testFixtures.userToken("outcomes");
+        roomId = testFixtures.room("Outcomes Room");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM booking_outbox WHERE room_id = ?", roomId);
+        jdbcTemplate.update("DELETE FROM bookings WHERE room_id = ?", roomId);
+        jdbcTemplate.update("DELETE FROM rooms WHERE id = ?", roomId);
+        jdbcTemplate.update("DELETE FROM users WHERE username = 'outcomes'");
+        roomCatalog.invalidate();
+    }
+
+    @Test
+    void committedCreateAndCancel_shouldBeCounted() throws Exception {
+        // given
+        LocalDateTime start = LocalDateTime.now()
+                .plusDays(3)
+                .withHour(10)
+                .withMinute(0)
+                .withSecond(0)
+                .withNano(0);
+        double createdBefore = outcome("created");
+        double cancelledBefore = outcome("cancelled");
+
+        // when
+        MvcResult created = mockMvc.perform(post("/api/bookings")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BookingCreateRequest.builder()
+                                .roomId(roomId)
+                                .startTime(start)
+                                .endTime(start.plusHours(1))
+                                .build())))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long bookingId =
+                ((Number) JsonPath.read(created.getResponse().getContentAsString(), "$.id")).longValue();
+
+        mockMvc.perform(patch("/api/bookings/{bookingId}/cancel", bookingId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+
+        // then
+        assertThat(outcome("created") - createdBefore).isEqualTo(1);
+        assertThat(outcome("cancelled") - cancelledBefore).isEqualTo(1);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry
+                .get("bookings.outcomes")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,111 @@
+package com.illoy.roombooking.integration.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.dto.request.BookingCreateRequest;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import com.illoy.roombooking.integration.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@AutoConfigureObservability
+@TestPropertySource(properties = "management.endpoints.web.exposure.include=health,prometheus")
+public class PrometheusMetricsTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String jwtToken;
+    private Long roomId;
+
+    @BeforeEach
+    void setup() throws Exception {
+        jwtToken = testFixtures.userToken("metrics");
+        roomId = testFixtures.room("Metrics Room");
+    }
+
+    @Test
+    void prometheus_shouldExposeBookingOutcomesAndLayerTimersWithoutToken() throws Exception {
+        // given
+        LocalDateTime start = LocalDateTime.now()
+                .plusDays(3)
+                .withHour(10)
+                .withMinute(0)
+                .withSecond(0)
+                .withNano(0);
+        double conflictBefore = outcome("conflict");
+        double timeInvalidBefore = outcome("time_invalid");
+
+        createBooking(start, start.plusHours(1)).andExpect(status().isCreated());
+        createBooking(start.plusMinutes(30), start.plusMinutes(90)).andExpect(status().isBadRequest());
+        createBooking(start.plusHours(2), start.plusHours(2).plusMinutes(15)).andExpect(status().isBadRequest());
+
+        // when
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // then: created засчитывается после коммита, а тестовая транзакция откатывается - см. BookingOutcomeMetricsTest
+        assertThat(outcome("conflict") - conflictBefore).isEqualTo(1);
+        assertThat(outcome("time_invalid") - timeInvalidBefore).isEqualTo(1);
+        assertThat(scrape)
+                .contains("bookings_outcomes_total{outcome=\"created\"")
+                .contains("bookings_outcomes_total{outcome=\"conflict\"")
+                .contains("bookings_outcomes_total{outcome=\"time_invalid\"")
+                .containsPattern("service_calls_seconds_count\\{.*method=\"create\"")
+                .containsPattern(
+                        "spring_data_repository_invocations_seconds_count\\{.*repository=\"BookingRepository\"")
+                .containsPattern("http_server_requests_seconds_count\\{.*uri=\"/api/bookings\"")
+                .contains("hikaricp_connections_active")
+                .containsPattern("http_server_requests_statements_count\\{.*uri=\"/api/bookings\"")
+                .contains("jvm_memory_used_bytes");
+    }
+
+    @Test
+    void health_shouldBeAvailableWithoutToken() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    private ResultActions createBooking(LocalDateTime start, LocalDateTime end) throws Exception {
+        return mockMvc.perform(post("/api/bookings")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(BookingCreateRequest.builder()
+                        .roomId(roomId)
+                        .startTime(start)
+                        .endTime(end)
+                        .build())));
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry
+                .get("bookings.outcomes")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,134 @@
+package com.illoy.roombooking.integration.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.dto.request.BookingCreateRequest;
+import com.illoy.roombooking.dto.response.BookingResponse;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import com.illoy.roombooking.integration.TestFixtures;
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@TestPropertySource(
+        properties = {
+            "spring.application.server-timing.enabled=true",
+            "spring.application.server-timing.allow-origin=https://app.example.com"
+        })
+public class ServerTimingTest extends IntegrationTestBase {
+
+    private static final Pattern HEADER = Pattern.compile("auth;dur=(\\d+\\.\\d{2}), "
+            + "db;dur=(\\d+\\.\\d{2});desc=\"(\\d+) queries\", "
+            + "mapping;dur=(\\d+\\.\\d{2}), "
+            + "serialization;dur=(\\d+\\.\\d{2}), "
+            + "total;dur=(\\d+\\.\\d{2})");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String jwtToken;
+    private Long roomId;
+
+    @BeforeEach
+    void setup() throws Exception {
+        testFixtures.user("timing");
+        roomId = testFixtures.room("Timing Room");
+
+        MvcResult login = testFixtures.login("timing");
+        assertThat(login.getResponse().getHeader("Server-Timing")).isNotNull();
+        jwtToken = testFixtures.token(login);
+    }
+
+    @Test
+    void createBooking_shouldReportLayersAndKeepBody() throws Exception {
+        // given
+        LocalDateTime start = LocalDateTime.now()
+                .plusDays(3)
+                .withHour(10)
+                .withMinute(0)
+                .withSecond(0)
+                .withNano(0);
+
+        // when
+        MvcResult result = mockMvc.perform(post("/api/bookings")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BookingCreateRequest.builder()
+                                .roomId(roomId)
+                                .startTime(start)
+                                .endTime(start.plusHours(1))
+                                .build())))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Timing-Allow-Origin", "https://app.example.com"))
+                .andReturn();
+
+        // then
+        Matcher timing = HEADER.matcher(result.getResponse().getHeader("Server-Timing"));
+        assertThat(timing.matches()).isTrue();
+
+        double auth = Double.parseDouble(timing.group(1));
+        int queries = Integer.parseInt(timing.group(3));
+        double total = Double.parseDouble(timing.group(6));
+        assertThat(auth).isPositive().isLessThanOrEqualTo(total);
+        // загрузка пользователя по токену, комната, блокировка, проверка пересечений, вставки
+        assertThat(queries).isGreaterThanOrEqualTo(4);
+        assertThat(Double.parseDouble(timing.group(2))).isLessThanOrEqualTo(total);
+
+        BookingResponse booking =
+                objectMapper.readValue(result.getResponse().getContentAsString(), BookingResponse.class);
+        assertThat(booking.getRoomId()).isEqualTo(roomId);
+    }
+
+    @Test
+    void anonymousRequest_shouldReportZeroAuth() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/bookings/{bookingId}", 1L))
+                .andExpect(status().isUnauthorized())
+                .andReturn();
+
+        Matcher timing = HEADER.matcher(result.getResponse().getHeader("Server-Timing"));
+        assertThat(timing.matches()).isTrue();
+        assertThat(timing.group(1)).isEqualTo("0.00");
+        assertThat(timing.group(3)).isEqualTo("0");
+    }
+
+    @Test
+    void availabilityStream_shouldNotBeBuffered() throws Exception {
+        mockMvc.perform(get("/api/rooms/{roomId}/availability/stream", roomId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtToken)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().doesNotExist("Server-Timing"));
+    }
+
+    @Test
+    void calendarFeed_shouldBeStreamedWithoutAcceptHeader() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/rooms/{roomId}/calendar.ics", roomId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Server-Timing"))
+                .andReturn();
+
+        assertThat(result.getResponse().getContentType()).startsWith("text/calendar");
+        assertThat(result.getResponse().getContentAsString()).startsWith("BEGIN:VCALENDAR");
+    }
+}
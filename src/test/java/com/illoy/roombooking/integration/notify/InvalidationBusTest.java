@@ -0,0 +1,129 @@
+package com.illoy.roombooking.integration.notify;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.illoy.roombooking.database.notify.InvalidationBus;
+import com.illoy.roombooking.database.notify.InvalidationEvent;
+import com.illoy.roombooking.database.notify.PgNotificationListener;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/*
+   Все узлы здесь - один и тот же Postgres: "чужой" узел имитируется
+   уведомлением с другим id узла, отправленным напрямую через pg_notify
+*/
+public class InvalidationBusTest extends IntegrationTestBase {
+
+    private static final String OTHER_NODE = "other-node";
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private PgNotificationListener listener;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // подписчики живут вместе с контекстом, поэтому каждый тест работает со своими id
+    private final List<InvalidationEvent> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // уведомления доставляются только после коммита, поэтому тестовая транзакция не нужна
+        TestTransaction.end();
+
+        invalidationBus.subscribe(InvalidationEvent.Entity.USER, received::add);
+        await(listener::isConnected);
+    }
+
+    @Test
+    void remoteBurst_shouldBeCoalescedIntoDistinctEvents() throws InterruptedException {
+        // when
+        notifyFrom(OTHER_NODE, "USER:9001,USER:9002");
+        notifyFrom(OTHER_NODE, "USER:9001");
+        notifyFrom(OTHER_NODE, "BOOKING:9003:2024-01-20");
+
+        // then
+        await(() -> received(9001L, 9002L).size() == 2);
+        Thread.sleep(300);
+        assertThat(received(9001L, 9002L))
+                .containsExactly(InvalidationEvent.user(9001L), InvalidationEvent.user(9002L));
+    }
+
+    @Test
+    void ownCommittedEvent_shouldBeDeliveredOnceAfterCommit() throws InterruptedException {
+        // when
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidationBus.publish(InvalidationEvent.user(9101L));
+            assertThat(received(9101L)).isEmpty();
+        });
+
+        // then
+        assertThat(received(9101L)).hasSize(1);
+        Thread.sleep(300);
+        assertThat(received(9101L)).hasSize(1);
+    }
+
+    @Test
+    void rolledBackEvent_shouldNotBeDelivered() throws InterruptedException {
+        // when
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidationBus.publish(InvalidationEvent.user(9201L));
+            status.setRollbackOnly();
+        });
+
+        // then
+        Thread.sleep(300);
+        assertThat(received(9201L)).isEmpty();
+    }
+
+    @Test
+    void listenerReconnect_shouldTriggerResync() throws InterruptedException {
+        // given
+        AtomicInteger resyncs = new AtomicInteger();
+        invalidationBus.onResync(resyncs::incrementAndGet);
+
+        // when
+        jdbcTemplate.queryForList(
+                "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                PgNotificationListener.APPLICATION_NAME);
+
+        // then
+        await(() -> resyncs.get() > 0);
+        assertThat(listener.isConnected()).isTrue();
+    }
+
+    private void notifyFrom(String node, String events) {
+        jdbcTemplate.queryForList("SELECT pg_notify('cache_invalidation', ?)", node + "|" + events);
+    }
+
+    private List<InvalidationEvent> received(Long... ids) {
+        List<Long> expected = List.of(ids);
+        return received.stream()
+                .filter(event -> expected.contains(event.getId()))
+                .toList();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis())
+                    .as("condition not met in time")
+                    .isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
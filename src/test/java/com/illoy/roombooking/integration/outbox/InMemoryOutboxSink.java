@@ -0,0 +1,36 @@
+package com.illoy.roombooking.integration.outbox;
+
+import com.illoy.roombooking.service.outbox.OutboxMessage;
+import com.illoy.roombooking.service.outbox.OutboxSink;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// события просто копятся в памяти; регистрируется в TestApplicationRunner
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxMessage> messages = new CopyOnWriteArrayList<>();
+
+    private volatile boolean failing;
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        if (failing) {
+            throw new IllegalStateException("Outbox sink is unavailable");
+        }
+
+        messages.addAll(batch);
+    }
+
+    public List<OutboxMessage> getMessages() {
+        return List.copyOf(messages);
+    }
+
+    // имитация недоступного получателя
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    public void clear() {
+        messages.clear();
+    }
+}
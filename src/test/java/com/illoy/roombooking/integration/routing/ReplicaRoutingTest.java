@@ -0,0 +1,145 @@
+package com.illoy.roombooking.integration.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.illoy.roombooking.database.routing.ReadYourWritesTracker;
+import com.illoy.roombooking.database.routing.ReplicaLagMonitor;
+import com.illoy.roombooking.dto.request.RoomCreateEditRequest;
+import com.illoy.roombooking.dto.response.RoomResponse;
+import com.illoy.roombooking.integration.TestApplicationRunner;
+import com.illoy.roombooking.service.RoomService;
+import java.util.List;
+import org.junit.jupiter.api.*;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/*
+   Настоящей репликации здесь нет: "реплика" - отдельная база с той же схемой.
+   Поэтому по набору видимых комнат можно понять, в какую базу ушёл запрос
+*/
+@ActiveProfiles("test")
+@SpringBootTest(classes = TestApplicationRunner.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ReplicaRoutingTest {
+
+    private static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:17.6");
+    private static final PostgreSQLContainer<?> replica =
+            new PostgreSQLContainer<>("postgres:17.6").withInitScript("db/changelog/db.changelog-1.0.sql");
+
+    private final RoomService roomService;
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final JdbcTemplate primaryJdbc;
+    private final JdbcTemplate replicaJdbc;
+
+    ReplicaRoutingTest(
+            RoomService roomService, ReplicaLagMonitor replicaLagMonitor, ReadYourWritesTracker readYourWritesTracker) {
+        this.roomService = roomService;
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.primaryJdbc = jdbc(primary);
+        this.replicaJdbc = jdbc(replica);
+    }
+
+    @BeforeAll
+    static void runContainers() {
+        primary.start();
+        replica.start();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("spring.application.datasource.replicas[0].url", replica::getJdbcUrl);
+        registry.add("spring.application.datasource.replicas[0].username", replica::getUsername);
+        registry.add("spring.application.datasource.replicas[0].password", replica::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        primaryJdbc.update("INSERT INTO rooms (name, capacity) VALUES ('Primary Room', 10)");
+        replicaJdbc.update("INSERT INTO rooms (name, capacity) VALUES ('Replica Room', 10)");
+        replicaLagMonitor.checkReplicas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primaryJdbc.update("DELETE FROM rooms");
+        if (replica.isRunning()) replicaJdbc.update("DELETE FROM rooms");
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyTransactionsGoToReplica() {
+        // when
+        var names = roomService.findAll().stream().map(RoomResponse::getName).toList();
+
+        // then
+        assertThat(names).containsExactly("Replica Room");
+    }
+
+    @Test
+    @Order(2)
+    void writesGoToPrimary() {
+        // given
+        RoomCreateEditRequest request = RoomCreateEditRequest.builder()
+                .name("New Room")
+                .description("Created on primary")
+                .capacity(5)
+                .build();
+
+        // when
+        roomService.create(request);
+
+        // then
+        assertThat(primaryJdbc.queryForObject("SELECT count(*) FROM rooms WHERE name = 'New Room'", Integer.class))
+                .isEqualTo(1);
+        assertThat(replicaJdbc.queryForObject("SELECT count(*) FROM rooms WHERE name = 'New Room'", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    @Order(3)
+    void userWithRecentWriteReadsFromPrimary() {
+        // given
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken("anna", null, List.of()));
+        readYourWritesTracker.recordWrite("anna");
+
+        // when
+        var names = roomService.findAll().stream().map(RoomResponse::getName).toList();
+
+        // then
+        assertThat(names).containsExactly("Primary Room");
+    }
+
+    @Test
+    @Order(4)
+    void readsFallBackToPrimaryWhenReplicaIsDown() {
+        // given
+        replica.stop();
+        replicaLagMonitor.checkReplicas();
+
+        // when
+        var names = roomService.findAll().stream().map(RoomResponse::getName).toList();
+
+        // then
+        assertThat(replicaLagMonitor.healthyReplicas()).isEmpty();
+        assertThat(names).containsExactly("Primary Room");
+    }
+
+    private static JdbcTemplate jdbc(PostgreSQLContainer<?> container) {
+        return new JdbcTemplate(
+                new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword()));
+    }
+}
@@ -0,0 +1,138 @@
+package com.illoy.roombooking.integration.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.illoy.roombooking.database.entity.*;
+import com.illoy.roombooking.database.repository.BookingRepository;
+import com.illoy.roombooking.database.repository.RoomRepository;
+import com.illoy.roombooking.database.repository.UserRepository;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import com.illoy.roombooking.service.BookingService;
+import com.illoy.roombooking.service.analytics.AnalyticsResultCache;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class AnalyticsResultCacheTest extends IntegrationTestBase {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AnalyticsResultCache analyticsResultCache;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    private static final LocalDateTime START = LocalDateTime.of(2023, 5, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2023, 5, 10, 0, 0);
+
+    private User user;
+    private Room room;
+    private Long bookingId;
+
+    @BeforeEach
+    void setUp() {
+        // тестовые транзакции откатываются, поэтому кеш не должен переживать тест
+        analyticsResultCache.evictAll();
+
+        user = User.builder()
+                .username("anna")
+                .email("anna@gmail.com")
+                .password("123")
+                .role(UserRole.ROLE_USER)
+                .build();
+        userRepository.save(user);
+
+        room = Room.builder().name("Conference Room A").capacity(20).build();
+        roomRepository.save(room);
+
+        Booking booking1 = booking(LocalDateTime.of(2023, 5, 2, 9, 0), BookingStatus.COMPLETED);
+        Booking booking2 = booking(LocalDateTime.of(2023, 5, 3, 9, 0), BookingStatus.COMPLETED);
+
+        bookingRepository.saveAll(List.of(booking1, booking2));
+        bookingId = booking1.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        analyticsResultCache.evictAll();
+    }
+
+    private Booking booking(LocalDateTime start, BookingStatus status) {
+        return Booking.builder()
+                .room(room)
+                .user(user)
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void closedDays_shouldBeServedFromCache() {
+        assertThat(bookingService.findCountByPeriodGroupByStatus(START, END)).containsEntry("COMPLETED", 2L);
+
+        // запись в обход сервиса не инвалидирует закрытые дни
+        bookingRepository.save(booking(LocalDateTime.of(2023, 5, 4, 9, 0), BookingStatus.COMPLETED));
+
+        assertThat(bookingService.findCountByPeriodGroupByStatus(START, END)).containsEntry("COMPLETED", 2L);
+    }
+
+    @Test
+    void extendedRange_shouldReuseCachedBuckets() {
+        assertThat(bookingService.findCountByPeriodGroupByStatus(START, END)).containsEntry("COMPLETED", 2L);
+
+        bookingRepository.save(booking(LocalDateTime.of(2023, 5, 4, 9, 0), BookingStatus.COMPLETED));
+        bookingRepository.save(booking(LocalDateTime.of(2023, 5, 11, 9, 0), BookingStatus.COMPLETED));
+
+        // неделя с 2023-05-01 уже в кеше, новые дни 05-10 и 05-11 считаются отдельно
+        assertThat(bookingService.findCountByPeriodGroupByStatus(START, END.plusDays(2)))
+                .containsEntry("COMPLETED", 3L);
+    }
+
+    @Test
+    void updateStatus_shouldEvictCachedDay() {
+        assertThat(bookingService.findCountByPeriodGroupByStatus(START, END)).containsEntry("COMPLETED", 2L);
+
+        bookingService.updateStatus(bookingId, BookingStatus.CANCELLED);
+
+        Map<String, Long> result = bookingService.findCountByPeriodGroupByStatus(START, END);
+        assertThat(result).containsEntry("COMPLETED", 1L).containsEntry("CANCELLED", 1L);
+    }
+
+    @Test
+    void partialFirstDay_shouldBeQueriedExactly() {
+        Map<String, Long> result = bookingService.findUsersBookingsCount(LocalDateTime.of(2023, 5, 2, 10, 0), END);
+
+        // бронирование 2023-05-02 09:00 раньше начала периода
+        assertThat(result).containsExactly(Map.entry("anna", 1L));
+    }
+
+    @Test
+    void findPopularRooms_shouldApplyLimitAfterMerge() {
+        Room room2 = roomRepository.save(
+                Room.builder().name("Meeting Room B").capacity(10).build());
+        bookingRepository.save(Booking.builder()
+                .room(room2)
+                .user(user)
+                .startTime(LocalDateTime.of(2023, 5, 1, 12, 0))
+                .endTime(LocalDateTime.of(2023, 5, 1, 13, 0))
+                .status(BookingStatus.COMPLETED)
+                .build());
+
+        Map<String, Long> result = bookingService.findPopularRooms(LocalDateTime.of(2023, 5, 1, 11, 0), END, 1);
+
+        assertThat(result).containsExactly(Map.entry("Conference Room A", 2L));
+    }
+}
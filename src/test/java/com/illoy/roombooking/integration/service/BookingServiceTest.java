@@ -220,11 +220,19 @@ public class BookingServiceTest extends IntegrationTestBase {
             username = "anna",
             roles = {"USER"})
     void create_shouldReturnExceptionRoomNotAvailable() {
-        // given
+        // given: время проверяется раньше конфликтов, поэтому занятый слот - в будущем
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        bookingRepository.save(Booking.builder()
+                .room(ROOM_FOR_CANCELLING)
+                .user(USER_FOR_CANCELLING)
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .status(BookingStatus.CONFIRMED)
+                .build());
         BookingCreateRequest request = BookingCreateRequest.builder()
                 .roomId(ACTIVE_ROOM_ID)
-                .startTime(LocalDateTime.of(2026, 1, 20, 10, 30))
-                .endTime(LocalDateTime.of(2026, 1, 20, 11, 30))
+                .startTime(start.plusMinutes(30))
+                .endTime(start.plusMinutes(90))
                 .build();
 
         // when
@@ -233,6 +241,25 @@ public class BookingServiceTest extends IntegrationTestBase {
                 .hasMessageContaining("Room is not available for selected time");
     }
 
+    @Test
+    @WithMockUser(
+            username = "anna",
+            roles = {"USER"})
+    void create_shouldRejectPastTimeBeforeConflictCheck() {
+        // given: слот в прошлом и к тому же занят
+        Booking past = bookingRepository.findById(PAST_BOOKING_ID).orElseThrow();
+        BookingCreateRequest request = BookingCreateRequest.builder()
+                .roomId(past.getRoom().getId())
+                .startTime(past.getStartTime())
+                .endTime(past.getEndTime())
+                .build();
+
+        // when
+        assertThatThrownBy(() -> bookingService.create(request))
+                .isInstanceOf(BookingTimeException.class)
+                .hasMessageContaining("Cannot book in the past");
+    }
+
     @Test
     @WithMockUser(
             username = "anna",
@@ -386,6 +413,22 @@ public class BookingServiceTest extends IntegrationTestBase {
         assertEquals(BookingStatus.CONFIRMED, response.getStatus());
     }
 
+    @Test
+    void updateStatus_shouldReturnRoomNotAvailable_whenSlotTakenMeanwhile() {
+        Booking cancelled = bookingRepository.findById(CANCELLED_BOOKING_ID).orElseThrow();
+        bookingRepository.save(Booking.builder()
+                .room(cancelled.getRoom())
+                .user(USER_FOR_CANCELLING)
+                .startTime(LocalDateTime.of(2026, 1, 20, 11, 30))
+                .endTime(LocalDateTime.of(2026, 1, 20, 12, 0))
+                .status(BookingStatus.CONFIRMED)
+                .build());
+
+        assertThatThrownBy(() -> bookingService.updateStatus(CANCELLED_BOOKING_ID, BookingStatus.CONFIRMED))
+                .isInstanceOf(RoomNotAvailableException.class)
+                .hasMessageContaining("Room is not available");
+    }
+
     @Test
     void updateStatus_shouldReturnBookingNotFoundException() {
         assertThatThrownBy(() -> bookingService.updateStatus(-999L, BookingStatus.COMPLETED))
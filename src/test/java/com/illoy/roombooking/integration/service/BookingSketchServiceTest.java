@@ -0,0 +1,142 @@
+package com.illoy.roombooking.integration.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.illoy.roombooking.database.entity.*;
+import com.illoy.roombooking.database.repository.BookingRepository;
+import com.illoy.roombooking.database.repository.RoomRepository;
+import com.illoy.roombooking.database.repository.UserRepository;
+import com.illoy.roombooking.dto.response.ApproximateCountResponse;
+import com.illoy.roombooking.dto.response.ApproximateTopResponse;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import com.illoy.roombooking.service.BookingSketchService;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class BookingSketchServiceTest extends IntegrationTestBase {
+
+    @Autowired
+    private BookingSketchService bookingSketchService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    private Room room2;
+
+    @BeforeEach
+    void setUp() {
+        // скетчи хранят id, а тестовые транзакции откатываются - кеш не должен переживать тест
+        bookingSketchService.evictAll();
+
+        User user1 = User.builder()
+                .username("anna")
+                .email("anna@gmail.com")
+                .password("123")
+                .role(UserRole.ROLE_USER)
+                .build();
+        User user2 = User.builder()
+                .username("oleg")
+                .email("oleg@gmail.com")
+                .password("123")
+                .role(UserRole.ROLE_USER)
+                .build();
+        User user3 = User.builder()
+                .username("nikol")
+                .email("kolya@gmail.com")
+                .password("123")
+                .role(UserRole.ROLE_USER)
+                .build();
+
+        userRepository.saveAll(List.of(user1, user2, user3));
+
+        Room room1 = Room.builder().name("Conference Room A").capacity(20).build();
+        room2 = Room.builder().name("Meeting Room B").capacity(10).build();
+
+        roomRepository.saveAll(List.of(room1, room2));
+
+        // закрытые (прошедшие) дни
+        Booking past1 = booking(room1, user1, LocalDateTime.of(2024, 3, 4, 9, 0));
+        Booking past2 = booking(room1, user2, LocalDateTime.of(2024, 3, 4, 12, 0));
+        Booking past3 = booking(room2, user1, LocalDateTime.of(2024, 3, 5, 10, 0));
+
+        // будущие дни
+        Booking future1 = booking(room1, user1, LocalDateTime.of(2100, 3, 4, 9, 0));
+        Booking future2 = booking(room1, user3, LocalDateTime.of(2100, 3, 4, 11, 0));
+        Booking future3 = booking(room1, user1, LocalDateTime.of(2100, 3, 5, 9, 0));
+
+        bookingRepository.saveAll(List.of(past1, past2, past3, future1, future2, future3));
+    }
+
+    private Booking booking(Room room, User user, LocalDateTime start) {
+        return Booking.builder()
+                .room(room)
+                .user(user)
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .status(BookingStatus.CONFIRMED)
+                .build();
+    }
+
+    @Test
+    void countDistinctUsers_shouldMergeClosedAndOpenDays() {
+        ApproximateCountResponse response = bookingSketchService.countDistinctUsers(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2100, 12, 31, 0, 0));
+
+        assertEquals(3, response.getEstimate());
+        assertThat(response.getRelativeStandardError()).isBetween(0.0, 0.05);
+    }
+
+    @Test
+    void countDistinctUsers_shouldRespectPartialDays() {
+        // 2024-03-04 12:00 не входит в период, 2024-03-05 входит целиком
+        ApproximateCountResponse response = bookingSketchService.countDistinctUsers(
+                LocalDateTime.of(2024, 3, 4, 10, 0), LocalDateTime.of(2024, 3, 6, 0, 0));
+
+        assertEquals(2, response.getEstimate());
+    }
+
+    @Test
+    void findTopUsers_shouldReturnUsersOrderedByCount() {
+        ApproximateTopResponse response = bookingSketchService.findTopUsers(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2100, 12, 31, 0, 0), 2);
+
+        assertThat(response.getCounts()).hasSize(2);
+        assertThat(response.getCounts().keySet()).first().isEqualTo("anna");
+        assertEquals(4, response.getCounts().get("anna"));
+        assertEquals(6, response.getTotalBookings());
+        assertThat(response.getConfidence()).isGreaterThan(0.9);
+    }
+
+    @Test
+    void findPopularRooms_shouldCountOnlyRequestedPeriod() {
+        ApproximateTopResponse response = bookingSketchService.findPopularRooms(
+                LocalDateTime.of(2100, 3, 4, 10, 0), LocalDateTime.of(2100, 3, 5, 23, 0), 10);
+
+        assertThat(response.getCounts()).containsOnlyKeys("Conference Room A");
+        assertEquals(2, response.getCounts().get("Conference Room A"));
+    }
+
+    @Test
+    void findPopularRooms_shouldReportCurrentNameForCachedDays() {
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 3, 31, 0, 0);
+        bookingSketchService.findPopularRooms(start, end, 10);
+
+        room2.setName("Meeting Room B2");
+        roomRepository.saveAndFlush(room2);
+
+        ApproximateTopResponse response = bookingSketchService.findPopularRooms(start, end, 10);
+
+        assertThat(response.getCounts()).containsOnlyKeys("Conference Room A", "Meeting Room B2");
+    }
+}
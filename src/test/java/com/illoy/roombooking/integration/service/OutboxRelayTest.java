@@ -0,0 +1,182 @@
+package com.illoy.roombooking.integration.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.illoy.roombooking.database.entity.*;
+import com.illoy.roombooking.database.repository.OutboxEventRepository;
+import com.illoy.roombooking.database.repository.RoomRepository;
+import com.illoy.roombooking.database.repository.UserRepository;
+import com.illoy.roombooking.dto.request.BookingCreateRequest;
+import com.illoy.roombooking.dto.response.BookingResponse;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import com.illoy.roombooking.integration.outbox.InMemoryOutboxSink;
+import com.illoy.roombooking.service.BookingService;
+import com.illoy.roombooking.service.catalog.RoomCatalog;
+import com.illoy.roombooking.service.outbox.OutboxMessage;
+import com.illoy.roombooking.service.outbox.OutboxRelay;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// события должны закоммититься, поэтому тестовой транзакции нет и данные чистятся вручную
+public class OutboxRelayTest extends IntegrationTestBase {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        TestTransaction.end();
+        jdbcTemplate.update("DELETE FROM booking_outbox");
+        sink.clear();
+        sink.setFailing(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sink.setFailing(false);
+        jdbcTemplate.update("DELETE FROM booking_outbox");
+        jdbcTemplate.update("DELETE FROM bookings WHERE room_id IN (SELECT id FROM rooms WHERE name = 'Outbox Room')");
+        jdbcTemplate.update("DELETE FROM rooms WHERE name = 'Outbox Room'");
+        jdbcTemplate.update("DELETE FROM users WHERE username = 'outbox'");
+        roomCatalog.invalidate();
+    }
+
+    @Test
+    @WithMockUser(username = "outbox")
+    void committedBooking_shouldBePublishedOnce() {
+        // given
+        userRepository.save(User.builder()
+                .username("outbox")
+                .email("outbox@test.com")
+                .password("123")
+                .role(UserRole.ROLE_USER)
+                .isActive(true)
+                .build());
+        Room room = roomRepository.save(
+                Room.builder().name("Outbox Room").capacity(4).build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        BookingResponse booking = bookingService.create(BookingCreateRequest.builder()
+                .roomId(room.getId())
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .build());
+        bookingService.cancel(booking.getId());
+
+        // when
+        int published = outboxRelay.relay();
+        int publishedAgain = outboxRelay.relay();
+
+        // then
+        assertThat(published).isEqualTo(2);
+        assertThat(publishedAgain).isZero();
+        assertThat(sink.getMessages())
+                .extracting(OutboxMessage::getType)
+                .containsExactly(OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_CANCELLED);
+        assertThat(sink.getMessages().get(1).getPayload())
+                .contains("\"id\":" + booking.getId())
+                .contains("\"status\":\"CANCELLED\"");
+    }
+
+    @Test
+    void failedSink_shouldLeaveEventsForRetry() {
+        // given
+        appendEvent(1L);
+        sink.setFailing(true);
+
+        // when
+        assertThatThrownBy(() -> outboxRelay.relay()).isInstanceOf(IllegalStateException.class);
+        long pending = outboxEventRepository.countByPublishedAtIsNull();
+        sink.setFailing(false);
+        int published = outboxRelay.relay();
+
+        // then
+        assertThat(pending).isEqualTo(1);
+        assertThat(published).isEqualTo(1);
+        assertThat(outboxEventRepository.countByPublishedAtIsNull()).isZero();
+    }
+
+    @Test
+    void roomWithEarlierEventLockedElsewhere_shouldWait() throws Exception {
+        // given
+        Long first = appendEvent(1L);
+        Long second = appendEvent(1L);
+        Long otherRoom = appendEvent(2L);
+
+        // "другой узел" держит первое событие комнаты 1
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherNode =
+                CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForList("SELECT id FROM booking_outbox WHERE id = ? FOR UPDATE", first);
+                    locked.countDown();
+                    await(release);
+                }));
+        await(locked);
+
+        // when
+        int publishedWhileLocked = outboxRelay.relay();
+        release.countDown();
+        otherNode.get(10, TimeUnit.SECONDS);
+        int publishedAfter = outboxRelay.relay();
+
+        // then
+        assertThat(publishedWhileLocked).isEqualTo(1);
+        assertThat(publishedAfter).isEqualTo(2);
+        assertThat(sink.getMessages()).extracting(OutboxMessage::getId).containsExactly(otherRoom, first, second);
+    }
+
+    private Long appendEvent(Long roomId) {
+        return outboxEventRepository
+                .save(OutboxEvent.builder()
+                        .bookingId(roomId * 100)
+                        .roomId(roomId)
+                        .eventType(OutboxEventType.BOOKING_CREATED)
+                        .payload("{}")
+                        .build())
+                .getId();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
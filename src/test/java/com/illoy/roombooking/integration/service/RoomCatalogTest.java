@@ -0,0 +1,150 @@
+package com.illoy.roombooking.integration.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.database.entity.Room;
+import com.illoy.roombooking.database.repository.RoomRepository;
+import com.illoy.roombooking.dto.request.RoomCreateEditRequest;
+import com.illoy.roombooking.dto.response.RoomResponse;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import com.illoy.roombooking.service.RoomService;
+import com.illoy.roombooking.service.catalog.RoomCatalog;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.transaction.TestTransaction;
+
+public class RoomCatalogTest extends IntegrationTestBase {
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        roomCatalog.invalidate();
+    }
+
+    @Test
+    void roomCreatedInTransaction_shouldBeVisibleInSameTransaction() {
+        // given
+        RoomResponse created = roomService.create(
+                RoomCreateEditRequest.builder().name("Catalog Room").capacity(8).build());
+
+        // when
+        List<RoomResponse> rooms = roomService.findAllActive();
+        RoomResponse found = roomService.findActiveRoomById(created.getId());
+
+        // then
+        assertThat(rooms).extracting(RoomResponse::getName).contains("Catalog Room");
+        assertEquals(8, found.getCapacity());
+    }
+
+    @Test
+    void roomSavedByRepository_shouldBypassSnapshot() {
+        // given
+        roomService.findAllActive();
+        roomRepository.save(Room.builder().name("Repository Room").capacity(4).build());
+
+        // when
+        List<RoomResponse> rooms = roomService.findActiveByCapacity(4);
+
+        // then
+        assertThat(rooms).extracting(RoomResponse::getName).contains("Repository Room");
+    }
+
+    @Test
+    void rolledBackRoom_shouldNotBeServedAfterTransactionEnds() {
+        // given
+        roomService.create(RoomCreateEditRequest.builder()
+                .name("Rolled Back Room")
+                .capacity(8)
+                .build());
+
+        // when
+        TestTransaction.end();
+        List<RoomResponse> rooms = roomCatalog.findAllActive();
+
+        // then
+        assertThat(rooms).extracting(RoomResponse::getName).doesNotContain("Rolled Back Room");
+    }
+
+    @Test
+    void snapshot_shouldBeReusedUntilInvalidated() {
+        // given
+        TestTransaction.end();
+        List<RoomResponse> first = roomCatalog.findAllActive();
+
+        // when
+        List<RoomResponse> second = roomCatalog.findAllActive();
+        roomCatalog.invalidate();
+        List<RoomResponse> third = roomCatalog.findAllActive();
+
+        // then
+        assertSame(first, second);
+        assertEquals(first, third);
+    }
+
+    @Test
+    void concurrentMisses_shouldShareOneLoad() throws Exception {
+        // given
+        TestTransaction.end();
+        roomCatalog.invalidate();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        List<Future<List<RoomResponse>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return roomCatalog.findAllActive();
+                }));
+            }
+            start.countDown();
+        }
+
+        // then: ждавшие получают срез, загруженный одним потоком
+        List<RoomResponse> first = results.get(0).get();
+        for (Future<List<RoomResponse>> result : results) {
+            assertSame(first, result.get());
+        }
+    }
+
+    @Test
+    void serializedCatalog_shouldBeCachedWithSnapshot() throws Exception {
+        // given
+        TestTransaction.end();
+        byte[] first = roomCatalog.findAllActiveJson();
+
+        // when
+        byte[] second = roomCatalog.findAllActiveJson();
+        roomCatalog.invalidate();
+        byte[] third = roomCatalog.findAllActiveJson();
+
+        // then
+        assertSame(first, second);
+        assertArrayEquals(first, third);
+        assertEquals(
+                roomCatalog.findAllActive(), objectMapper.readValue(first, new TypeReference<List<RoomResponse>>() {}));
+    }
+}
@@ -12,6 +12,7 @@ import com.illoy.roombooking.database.repository.UserRepository;
 import com.illoy.roombooking.dto.request.RoomCreateEditRequest;
 import com.illoy.roombooking.dto.response.RoomAvailabilityResponse;
 import com.illoy.roombooking.dto.response.RoomResponse;
+import com.illoy.roombooking.exception.BookingTimeException;
 import com.illoy.roombooking.exception.RoomAlreadyExistsException;
 import com.illoy.roombooking.exception.RoomHasActiveBookingsException;
 import com.illoy.roombooking.exception.RoomNotFoundException;
@@ -187,6 +188,21 @@ public class RoomServiceTest extends IntegrationTestBase {
         assertThat(rooms).noneMatch(room -> room.getCapacity() < 10);
     }
 
+    @Test
+    void findAvailable_shouldReturnRoomsInCapacityRangeSortedByCapacity() {
+        List<RoomResponse> rooms = roomService.findAvailable(2, 20, null, null);
+
+        assertThat(rooms)
+                .extracting(RoomResponse::getName)
+                .containsExactly("Small Room C", "Meeting Room B", "Conference Room A");
+    }
+
+    @Test
+    void findAvailable_shouldRequireBothIntervalBounds() {
+        assertThatThrownBy(() -> roomService.findAvailable(2, null, START, null))
+                .isInstanceOf(BookingTimeException.class);
+    }
+
     @Test
     void countActive_shouldReturnCountActive() {
         Long count = roomService.countActiveRooms();
@@ -202,6 +218,29 @@ public class RoomServiceTest extends IntegrationTestBase {
         assertThat(rooms).noneMatch(room -> !room.isActive());
     }
 
+    @Test
+    void searchByName_shouldRankExactAndPrefixMatchesFirst() {
+        // given
+        roomRepository.saveAll(List.of(
+                Room.builder().name("Roomy Hall").capacity(30).build(),
+                Room.builder().name("Room").capacity(5).build()));
+
+        // when
+        List<RoomResponse> rooms = roomService.searchActiveByName("room");
+
+        // then
+        assertThat(rooms)
+                .extracting(RoomResponse::getName)
+                .containsExactly("Room", "Roomy Hall", "Small Room C", "Meeting Room B", "Conference Room A");
+    }
+
+    @Test
+    void searchByName_shouldFallBackToFuzzyMatch() {
+        List<RoomResponse> rooms = roomService.searchActiveByName("Confrence");
+
+        assertThat(rooms).extracting(RoomResponse::getName).containsExactly("Conference Room A");
+    }
+
     @Test
     void checkAvailability_shouldReturnRoomSheduleSuccessfully() {
         RoomAvailabilityResponse response = roomService.checkAvailability(ACTIVE_ID, START, END);
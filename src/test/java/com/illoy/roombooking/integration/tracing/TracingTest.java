@@ -0,0 +1,142 @@
+package com.illoy.roombooking.integration.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.illoy.roombooking.dto.request.BookingCreateRequest;
+import com.illoy.roombooking.dto.response.SpanResponse;
+import com.illoy.roombooking.dto.response.TraceResponse;
+import com.illoy.roombooking.integration.IntegrationTestBase;
+import com.illoy.roombooking.integration.TestFixtures;
+import com.illoy.roombooking.service.tracing.RecentSpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+@AutoConfigureObservability
+@TestPropertySource(
+        properties = {
+            "management.tracing.sampling.probability=1.0",
+            "spring.application.tracing.file.path=" + TracingTest.SPAN_FILE
+        })
+public class TracingTest extends IntegrationTestBase {
+
+    static final String SPAN_FILE = "target/tracing-test/spans.jsonl";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RecentSpanExporter recentSpanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    private String jwtToken;
+    private Long roomId;
+
+    @BeforeEach
+    void setup() throws Exception {
+        jwtToken = testFixtures.userToken("tracing");
+        roomId = testFixtures.room("Tracing Room");
+    }
+
+    @Test
+    void createBooking_shouldProduceSpansForFilterServicesAndJdbc() throws Exception {
+        // given
+        LocalDateTime start = LocalDateTime.now()
+                .plusDays(3)
+                .withHour(10)
+                .withMinute(0)
+                .withSecond(0)
+                .withNano(0);
+
+        // when
+        mockMvc.perform(post("/api/bookings")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BookingCreateRequest.builder()
+                                .roomId(roomId)
+                                .startTime(start)
+                                .endTime(start.plusHours(1))
+                                .build())))
+                .andExpect(status().isCreated());
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        // then
+        TraceResponse trace = recentSpanExporter.traces(50).stream()
+                .filter(candidate -> candidate.getSpans().stream()
+                        .anyMatch(span -> span.getName().equals("booking-create")))
+                .findFirst()
+                .orElseThrow();
+        Map<String, SpanResponse> byName = trace.getSpans().stream()
+                .collect(Collectors.toMap(SpanResponse::getName, Function.identity(), (first, second) -> first));
+
+        assertThat(byName)
+                .containsKeys(
+                        "http post /api/bookings",
+                        "auth-token-filter",
+                        "load-user-by-username",
+                        "get-current-user",
+                        "booking-create");
+
+        // между HTTP-спаном и фильтром JWT лежат спаны цепочки Spring Security
+        assertThat(isDescendant(trace, byName.get("auth-token-filter"), "http post /api/bookings"))
+                .isTrue();
+        assertThat(byName.get("load-user-by-username").getParentSpanId())
+                .isEqualTo(byName.get("auth-token-filter").getSpanId());
+        assertThat(isDescendant(trace, byName.get("booking-create"), "http post /api/bookings"))
+                .isTrue();
+        assertThat(byName.get("get-current-user").getParentSpanId())
+                .isEqualTo(byName.get("booking-create").getSpanId());
+
+        // блокировка комнаты, поиск пересечений, вставка брони и события outbox
+        List<SpanResponse> bookingQueries = trace.getSpans().stream()
+                .filter(span -> span.getKind().equals("CLIENT"))
+                .filter(span -> byName.get("booking-create").getSpanId().equals(span.getParentSpanId()))
+                .toList();
+        assertThat(bookingQueries).hasSizeGreaterThanOrEqualTo(3);
+        assertThat(bookingQueries)
+                .anyMatch(span ->
+                        span.getAttributes().getOrDefault("jdbc.query[0]", "").contains("insert into bookings"));
+
+        assertThat(Files.readString(Path.of(SPAN_FILE)))
+                .contains("\"resourceSpans\"")
+                .contains("\"traceId\":\"" + trace.getTraceId() + "\"");
+    }
+
+    private boolean isDescendant(TraceResponse trace, SpanResponse span, String ancestorName) {
+        Map<String, SpanResponse> byId =
+                trace.getSpans().stream().collect(Collectors.toMap(SpanResponse::getSpanId, Function.identity()));
+        for (SpanResponse parent = byId.get(span.getParentSpanId());
+                parent != null;
+                parent = byId.get(parent.getParentSpanId())) {
+            if (parent.getName().equals(ancestorName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}